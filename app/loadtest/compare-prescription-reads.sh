@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+#
+# Compares servlet-thread usage of the blocking prescription read
+# (GET /prescription/{appointmentId}) with the reactive one
+# (GET /reactive/prescription/{appointmentId}) under the same load.
+#
+# Requirements: the app running on BASE with actuator metrics exposed,
+# server.tomcat.mbeanregistry.enabled=true (for tomcat.threads.busy), a doctor
+# account, curl, jq and hey (https://github.com/rakyll/hey).
+#
+# Usage:
+#   DOCTOR_EMAIL=doc@example.com DOCTOR_PASSWORD=secret APPOINTMENT_ID=1 \
+#     loadtest/compare-prescription-reads.sh
+#
+# While each run is in progress the script samples tomcat.threads.busy and
+# jvm.threads.live every 200 ms and reports the peak next to hey's summary.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+BASE=${BASE:-http://localhost:8080}
+CONCURRENCY=${CONCURRENCY:-400}
+REQUESTS=${REQUESTS:-20000}
+APPOINTMENT_ID=${APPOINTMENT_ID:?set APPOINTMENT_ID}
+DOCTOR_EMAIL=${DOCTOR_EMAIL:?set DOCTOR_EMAIL}
+DOCTOR_PASSWORD=${DOCTOR_PASSWORD:?set DOCTOR_PASSWORD}
+OUT=loadtest/results
+mkdir -p "$OUT"
+
+token=$(curl -sf -X POST "$BASE/doctor/login" -H 'Content-Type: application/json' \
+    -d "{\"identifier\":\"${DOCTOR_EMAIL}\",\"password\":\"${DOCTOR_PASSWORD}\"}" | jq -r .token)
+auth="Authorization: Bearer ${token}"
+
+metric() {
+    curl -sf "$BASE/actuator/metrics/$1" | jq '.measurements[0].value'
+}
+
+sample_peaks() {
+    local file=$1 busy live
+    echo "0 0" > "$file"
+    while true; do
+        busy=$(metric tomcat.threads.busy || echo 0)
+        live=$(metric jvm.threads.live || echo 0)
+        read -r max_busy max_live < "$file"
+        awk -v b="$busy" -v l="$live" -v mb="$max_busy" -v ml="$max_live" \
+            'BEGIN { print (b > mb ? b : mb), (l > ml ? l : ml) }' > "$file"
+        sleep 0.2
+    done
+}
+
+run() {
+    local name=$1 url=$2 peaks="$OUT/prescription-${1}-peaks.txt"
+
+    echo "=== ${name} ==="
+    hey -n 2000 -c 50 -H "$auth" "$url" > /dev/null  # warm-up
+
+    sample_peaks "$peaks" &
+    local sampler=$!
+    hey -n "$REQUESTS" -c "$CONCURRENCY" -H "$auth" "$url" | tee "$OUT/prescription-${name}.txt"
+    kill "$sampler"
+
+    read -r max_busy max_live < "$peaks"
+    echo "peak tomcat.threads.busy=${max_busy} peak jvm.threads.live=${max_live}" \
+        | tee -a "$OUT/prescription-${name}.txt"
+}
+
+run blocking "$BASE/prescription/${APPOINTMENT_ID}"
+run reactive "$BASE/reactive/prescription/${APPOINTMENT_ID}"
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+#
+# Compares the default (platform-thread) mode with the "virtual" profile under
+# high concurrency on the availability and booking endpoints.
+#
+# Requirements: a built jar (./mvnw package -DskipTests), reachable MySQL/MongoDB
+# with at least one doctor and one patient, curl, jq and hey
+# (https://github.com/rakyll/hey).
+#
+# Usage:
+#   DOCTOR_ID=1 PATIENT_ID=1 PATIENT_EMAIL=jane@example.com PATIENT_PASSWORD=secret \
+#     loadtest/compare-thread-modes.sh
+#
+# Each mode starts its own JVM on PORT, waits for /actuator/health, warms up,
+# then records hey's summary under loadtest/results/<mode>-<endpoint>.txt.
+# Booking requests all target the same slot, so most are rejected by the
+# overlap check; that still exercises the full JDBC path per request.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-8080}
+BASE="http://localhost:${PORT}"
+CONCURRENCY=${CONCURRENCY:-500}
+REQUESTS=${REQUESTS:-20000}
+DOCTOR_ID=${DOCTOR_ID:?set DOCTOR_ID}
+PATIENT_ID=${PATIENT_ID:?set PATIENT_ID}
+PATIENT_EMAIL=${PATIENT_EMAIL:?set PATIENT_EMAIL}
+PATIENT_PASSWORD=${PATIENT_PASSWORD:?set PATIENT_PASSWORD}
+DATE=${DATE:-$(date -d tomorrow +%F)}
+JAR=$(ls target/back-end-*.jar | head -n 1)
+OUT=loadtest/results
+mkdir -p "$OUT"
+
+run_mode() {
+    local mode=$1 profiles=$2
+
+    echo "=== ${mode} ==="
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+        > "$OUT/${mode}-app.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+
+    until curl -sf "$BASE/actuator/health" > /dev/null; do sleep 1; done
+
+    local token
+    token=$(curl -sf -X POST "$BASE/patient/login" -H 'Content-Type: application/json' \
+        -d "{\"identifier\":\"${PATIENT_EMAIL}\",\"password\":\"${PATIENT_PASSWORD}\"}" | jq -r .token)
+
+    local auth="Authorization: Bearer ${token}"
+    local availability="$BASE/doctor/availability/patient/${DOCTOR_ID}/${DATE}"
+    local booking
+    booking=$(printf '{"doctor":{"id":%s},"patient":{"id":%s},"appointmentTime":"%sT10:00:00","reasonForVisit":"Load test","status":0}' \
+        "$DOCTOR_ID" "$PATIENT_ID" "$DATE")
+
+    # Warm-up (JIT, connection pools)
+    hey -n 2000 -c 50 -H "$auth" "$availability" > /dev/null
+
+    hey -n "$REQUESTS" -c "$CONCURRENCY" -H "$auth" "$availability" \
+        | tee "$OUT/${mode}-availability.txt"
+    hey -n "$REQUESTS" -c "$CONCURRENCY" -m POST -T application/json -H "$auth" -d "$booking" \
+        "$BASE/appointments" | tee "$OUT/${mode}-booking.txt"
+}
+
+run_mode platform default
+run_mode virtual virtual
+
+echo
+echo "Summaries:"
+grep -H -E "Requests/sec|99% in" "$OUT"/*-availability.txt "$OUT"/*-booking.txt
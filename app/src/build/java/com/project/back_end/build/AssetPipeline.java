@@ -0,0 +1,325 @@
+package com.project.back_end.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * AssetPipeline
+ *
+ * Build-time static asset stage, run by the exec-maven-plugin in the prepare-package
+ * phase against target/classes (never against src/):
+ *
+ *   1. Every file under static/js, static/assets/css and static/assets/images gets a
+ *      content-hashed copy next to it (render.js -> render.1a2b3c4d5e6f7a8b.js).
+ *   2. References to those files are rewritten to the hashed names in CSS (url(), @import),
+ *      JS (import specifiers and absolute "/js/...", "/assets/..." strings), index.html,
+ *      pages/*.html and the Thymeleaf templates. Files are hashed after their own
+ *      references are rewritten, so a changed image also changes the CSS that uses it.
+ *   3. Text files get .gz and .br variants; binary files only where compression saves
+ *      at least 10%.
+ *
+ * Originals stay in place, so references that cannot be resolved at build time (e.g.
+ * page-relative image paths inside JS template strings) keep working. JS modules that
+ * import each other in a cycle are left unhashed so no module is loaded twice.
+ *
+ * Run as a single-file program: java -cp <brotli4j> AssetPipeline.java target/classes
+ */
+public final class AssetPipeline {
+
+    private static final List<String> FINGERPRINTED_DIRS = List.of("/js/", "/assets/css/", "/assets/images/");
+    private static final Set<String> TEXT_TYPES = Set.of("js", "css", "html", "svg", "json", "txt");
+    // name.<16 hex>.ext; must match StaticAssetCacheFilter
+    private static final Pattern HASHED_NAME = Pattern.compile("^(.+)\\.[0-9a-f]{16}(\\.[A-Za-z0-9]+)$");
+    private static final double MIN_SAVING = 0.10;
+
+    private static final Pattern JS_IMPORT = Pattern.compile("(\\bfrom\\s*|\\bimport\\s*\\(?\\s*)([\"'])([^\"'\\n]+)\\2");
+    private static final Pattern JS_ABSOLUTE = Pattern.compile("([\"'`])(/(?:js|assets)/[^\"'`\\s]+)\\1");
+    private static final Pattern CSS_URL = Pattern.compile("(url\\(\\s*)([\"']?)([^\"')]+)\\2(\\s*\\))");
+    private static final Pattern CSS_IMPORT = Pattern.compile("(@import\\s+)([\"'])([^\"']+)\\2");
+    private static final Pattern HTML_ATTRIBUTE = Pattern.compile("((?:th:)?(?:src|href)\\s*=\\s*)([\"'])(.*?)\\2");
+
+    private final Path staticRoot;
+    private final Path templatesRoot;
+    private final Map<String, Path> assets = new TreeMap<>();     // URL path -> original file
+    private final Map<String, String> hashed = new HashMap<>();   // URL path -> hashed file name (null = unhashed)
+    private final Deque<String> inProgress = new ArrayDeque<>();
+    private final Set<String> cyclic = new HashSet<>();
+
+    private long originalBytes;
+    private long gzipBytes;
+    private long brotliBytes;
+
+    private AssetPipeline(Path classes) {
+        this.staticRoot = classes.resolve("static");
+        this.templatesRoot = classes.resolve("templates");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: AssetPipeline <build output directory>");
+            System.exit(2);
+        }
+        Brotli4jLoader.ensureAvailability();
+        new AssetPipeline(Path.of(args[0])).run();
+    }
+
+    private void run() throws IOException {
+        if (!Files.isDirectory(staticRoot)) {
+            System.out.println("[assets] no static directory, skipping");
+            return;
+        }
+        cleanPreviousOutput();
+        collectAssets();
+
+        for (String url : assets.keySet()) {
+            fingerprint(url);
+        }
+        for (Path html : htmlFiles()) {
+            rewriteHtml(html);
+        }
+        compressAll();
+
+        long count = hashed.values().stream().filter(Objects::nonNull).count();
+        System.out.printf("[assets] %d files fingerprinted; text %d bytes -> gzip %d, brotli %d%n",
+                count, originalBytes, gzipBytes, brotliBytes);
+    }
+
+    // ---------------------------------------------------------------------
+    // Discovery
+    // ---------------------------------------------------------------------
+
+    /** Removes hashed copies and variants left by an earlier run of an incremental build. */
+    private void cleanPreviousOutput() throws IOException {
+        try (Stream<Path> files = Files.walk(staticRoot)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".gz") || name.endsWith(".br") || HASHED_NAME.matcher(name).matches()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void collectAssets() throws IOException {
+        try (Stream<Path> files = Files.walk(staticRoot)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String url = url(file);
+                if (FINGERPRINTED_DIRS.stream().anyMatch(url::startsWith)) {
+                    assets.put(url, file);
+                }
+            }
+        }
+    }
+
+    private List<Path> htmlFiles() throws IOException {
+        List<Path> html = new ArrayList<>();
+        for (Path root : List.of(staticRoot, templatesRoot)) {
+            if (!Files.isDirectory(root)) continue;
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(f -> f.toString().endsWith(".html")).forEach(html::add);
+            }
+        }
+        return html;
+    }
+
+    // ---------------------------------------------------------------------
+    // Fingerprinting (depth-first, so dependencies are hashed before their users)
+    // ---------------------------------------------------------------------
+
+    /**
+     * @return the hashed file name of the asset, or null if it stays unhashed
+     */
+    private String fingerprint(String url) throws IOException {
+        if (hashed.containsKey(url)) return hashed.get(url);
+        if (inProgress.contains(url)) {
+            // Cycle: everything on the stack down to this asset stays unhashed
+            for (String member : inProgress) {
+                cyclic.add(member);
+                if (member.equals(url)) break;
+            }
+            return null;
+        }
+
+        inProgress.push(url);
+        Path file = assets.get(url);
+        String type = extension(file);
+        byte[] content = Files.readAllBytes(file);
+        if (type.equals("js") || type.equals("css")) {
+            String text = new String(content, StandardCharsets.UTF_8);
+            String rewritten = type.equals("js")
+                    ? rewrite(rewrite(text, JS_IMPORT, 3, url), JS_ABSOLUTE, 2, url)
+                    : rewrite(rewrite(text, CSS_URL, 3, url), CSS_IMPORT, 3, url);
+            content = rewritten.getBytes(StandardCharsets.UTF_8);
+            if (!rewritten.equals(text)) Files.write(file, content);
+        }
+        inProgress.pop();
+
+        String name = null;
+        if (!cyclic.contains(url)) {
+            String fileName = file.getFileName().toString();
+            name = fileName.substring(0, fileName.length() - type.length() - 1) + "." + hash(content) + "." + type;
+            Files.write(file.resolveSibling(name), content);
+        }
+        hashed.put(url, name);
+        return name;
+    }
+
+    private void rewriteHtml(Path html) throws IOException {
+        String text = Files.readString(html);
+        // Templates are served from controller URLs, so only absolute references resolve
+        String base = html.startsWith(staticRoot) ? url(html) : null;
+        String rewritten = rewrite(text, HTML_ATTRIBUTE, 3, base);
+        if (!rewritten.equals(text)) Files.writeString(html, rewritten);
+    }
+
+    /**
+     * Replaces the reference in the given group of every match with its hashed form,
+     * keeping the reference's own style (relative or absolute, query string, Thymeleaf @{...}).
+     */
+    private String rewrite(String text, Pattern pattern, int group, String baseUrl) throws IOException {
+        Matcher matcher = pattern.matcher(text);
+        StringBuilder out = new StringBuilder(text.length());
+        while (matcher.find()) {
+            String reference = matcher.group(group);
+            String replacement = hashedReference(reference, baseUrl);
+            String whole = matcher.group();
+            int start = matcher.start(group) - matcher.start();
+            String updated = replacement == null ? whole
+                    : whole.substring(0, start) + replacement + whole.substring(start + reference.length());
+            matcher.appendReplacement(out, Matcher.quoteReplacement(updated));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private String hashedReference(String reference, String baseUrl) throws IOException {
+        String prefix = "";
+        String suffix = "";
+        String path = reference;
+        if (path.startsWith("@{") && path.endsWith("}")) {
+            prefix = "@{";
+            suffix = "}";
+            path = path.substring(2, path.length() - 1);
+        }
+        if (path.contains("://") || path.startsWith("//") || path.startsWith("data:")
+                || path.startsWith("#") || path.contains("${")) {
+            return null;
+        }
+        int query = indexOfAny(path, '?', '#');
+        if (query >= 0) {
+            suffix = path.substring(query) + suffix;
+            path = path.substring(0, query);
+        }
+
+        String directory = path.substring(0, path.lastIndexOf('/') + 1);
+        String url;
+        if (path.startsWith("/")) {
+            url = path;
+        } else if (baseUrl != null) {
+            url = URI.create(baseUrl).resolve(path).normalize().getPath();
+        } else {
+            return null;
+        }
+        url = unhashed(url);
+        if (!assets.containsKey(url)) return null;
+
+        String name = fingerprint(url);
+        return name == null ? null : prefix + directory + name + suffix;
+    }
+
+    /** Maps a reference already rewritten by an earlier run back to the original file. */
+    private static String unhashed(String url) {
+        int slash = url.lastIndexOf('/');
+        Matcher matcher = HASHED_NAME.matcher(url.substring(slash + 1));
+        return matcher.matches() ? url.substring(0, slash + 1) + matcher.group(1) + matcher.group(2) : url;
+    }
+
+    // ---------------------------------------------------------------------
+    // Precompression
+    // ---------------------------------------------------------------------
+
+    private void compressAll() throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(staticRoot)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        Encoder.Parameters brotli = new Encoder.Parameters().setQuality(11);
+        for (Path file : files) {
+            boolean text = TEXT_TYPES.contains(extension(file));
+            byte[] content = Files.readAllBytes(file);
+            if (content.length == 0) continue;
+
+            byte[] gzip = gzip(content);
+            byte[] br = Encoder.compress(content, brotli);
+            if (text || gzip.length <= content.length * (1 - MIN_SAVING)) {
+                Files.write(file.resolveSibling(file.getFileName() + ".gz"), gzip);
+            }
+            if (text || br.length <= content.length * (1 - MIN_SAVING)) {
+                Files.write(file.resolveSibling(file.getFileName() + ".br"), br);
+            }
+            if (text) {
+                originalBytes += content.length;
+                gzipBytes += gzip.length;
+                brotliBytes += br.length;
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (OutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private String url(Path file) {
+        return "/" + staticRoot.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static int indexOfAny(String value, char a, char b) {
+        int first = value.indexOf(a);
+        int second = value.indexOf(b);
+        if (first < 0) return second;
+        return second < 0 ? first : Math.min(first, second);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.project.back_end.DTO;
 
+import com.fasterxml.jackson.annotation.JsonView;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ArchivedAppointment;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -10,19 +14,29 @@ import java.time.LocalTime;
  * This Data Transfer Object (DTO) is used to send structured appointment data
  * between the backend and the frontend. It decouples internal entity models
  * from the exposed API response.
+ *
+ * Fields marked with Views.Summary form the compact list row (?view=summary): the
+ * derived fields and the patient's contact details are left out.
  */
 public class AppointmentDTO {
 
     // Core Fields
+    @JsonView(Views.Summary.class)
     private Long id;                     // Unique identifier for the appointment
+    @JsonView(Views.Summary.class)
     private Long doctorId;               // Doctor ID
+    @JsonView(Views.Summary.class)
     private String doctorName;           // Doctor's full name
+    @JsonView(Views.Summary.class)
     private Long patientId;              // Patient ID
+    @JsonView(Views.Summary.class)
     private String patientName;          // Patient's full name
     private String patientEmail;         // Patient's email
     private String patientPhone;         // Patient's contact number
     private String patientAddress;       // Patient's residential address
+    @JsonView(Views.Summary.class)
     private LocalDateTime appointmentTime; // Full date & time of appointment
+    @JsonView(Views.Summary.class)
     private int status;                  // Appointment status (e.g., 0 = scheduled, 1 = completed)
 
     // Derived Fields
@@ -65,6 +79,42 @@ public class AppointmentDTO {
         }
     }
 
+    /**
+     * Builds the DTO from an Appointment entity with its doctor and patient loaded.
+     */
+    public AppointmentDTO(Appointment appointment) {
+        this(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getDoctor().getName(),
+                appointment.getPatient().getId(),
+                appointment.getPatient().getName(),
+                appointment.getPatient().getEmail(),
+                appointment.getPatient().getPhone(),
+                appointment.getPatient().getAddress(),
+                appointment.getAppointmentTime(),
+                appointment.getStatus()
+        );
+    }
+
+    /**
+     * Builds the DTO from an archived appointment with its doctor and patient loaded.
+     */
+    public AppointmentDTO(ArchivedAppointment appointment) {
+        this(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getDoctor().getName(),
+                appointment.getPatient().getId(),
+                appointment.getPatient().getName(),
+                appointment.getPatient().getEmail(),
+                appointment.getPatient().getPhone(),
+                appointment.getPatient().getAddress(),
+                appointment.getAppointmentTime(),
+                appointment.getStatus()
+        );
+    }
+
     // ✅ Getters
     public Long getId() {
         return id;
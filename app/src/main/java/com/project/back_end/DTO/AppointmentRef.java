@@ -0,0 +1,21 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * AppointmentRef
+ *
+ * Projection of an appointment's keys, used when only the IDs it links
+ * together are needed (e.g. to stamp a prescription with its patient and doctor)
+ * without loading the appointment, doctor and patient entities.
+ */
+public interface AppointmentRef {
+
+    Long getId();                       // Appointment ID
+
+    Long getPatientId();                // Patient the appointment belongs to
+
+    Long getDoctorId();                 // Doctor the appointment is with
+
+    LocalDateTime getAppointmentTime(); // Scheduled date & time
+}
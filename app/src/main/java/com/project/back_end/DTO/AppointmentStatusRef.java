@@ -0,0 +1,18 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * AppointmentStatusRef
+ *
+ * Projection of the fields an appointment is counted under in the admin
+ * statistics, read without loading the appointment entity.
+ */
+public interface AppointmentStatusRef {
+
+    Long getDoctorId();                 // Doctor the appointment is with
+
+    LocalDateTime getAppointmentTime(); // Scheduled date & time
+
+    Integer getStatus();                // 0 = Scheduled, 1 = Completed, 2 = Cancelled
+}
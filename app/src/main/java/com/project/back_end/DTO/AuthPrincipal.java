@@ -0,0 +1,36 @@
+package com.project.back_end.DTO;
+
+/**
+ * AuthPrincipal
+ *
+ * The identity behind a verified token: the entity ID, the identifier the
+ * token was issued for (email for doctors/patients, username for admins)
+ * and the role it was verified against.
+ */
+public class AuthPrincipal {
+
+    /** Request attribute under which the AuthInterceptor stores the current principal. */
+    public static final String REQUEST_ATTRIBUTE = "authPrincipal";
+
+    private final Long id;            // ID of the Admin, Doctor or Patient row
+    private final String identifier;  // Email or username (token subject)
+    private final String role;        // "admin", "doctor" or "patient"
+
+    public AuthPrincipal(Long id, String identifier, String role) {
+        this.id = id;
+        this.identifier = identifier;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
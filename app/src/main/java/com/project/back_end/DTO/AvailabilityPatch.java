@@ -0,0 +1,86 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+/**
+ * AvailabilityPatch
+ *
+ * Request body for incremental availability edits. Individual slots use the
+ * "HH:mm-HH:mm" format of Doctor.availableTimes; ranges are expanded into
+ * consecutive slots of slotMinutes (default 60). Removals are applied before additions.
+ *
+ * Example: {"add": ["16:00-17:00"], "removeRanges": [{"from": "09:00", "to": "12:00"}]}
+ */
+public class AvailabilityPatch {
+
+    private List<String> add;                 // Slots to add
+    private List<String> remove;              // Slots to remove
+    private List<SlotRange> addRanges;        // Ranges to fill with consecutive slots
+    private List<SlotRange> removeRanges;     // Ranges whose slots are removed
+
+    public List<String> getAdd() {
+        return add;
+    }
+
+    public void setAdd(List<String> add) {
+        this.add = add;
+    }
+
+    public List<String> getRemove() {
+        return remove;
+    }
+
+    public void setRemove(List<String> remove) {
+        this.remove = remove;
+    }
+
+    public List<SlotRange> getAddRanges() {
+        return addRanges;
+    }
+
+    public void setAddRanges(List<SlotRange> addRanges) {
+        this.addRanges = addRanges;
+    }
+
+    public List<SlotRange> getRemoveRanges() {
+        return removeRanges;
+    }
+
+    public void setRemoveRanges(List<SlotRange> removeRanges) {
+        this.removeRanges = removeRanges;
+    }
+
+    /**
+     * A time range within one day, e.g. from "09:00" to "12:00".
+     */
+    public static class SlotRange {
+
+        private String from;          // "HH:mm", inclusive
+        private String to;            // "HH:mm", exclusive
+        private Integer slotMinutes;  // Slot length when adding (default 60)
+
+        public String getFrom() {
+            return from;
+        }
+
+        public void setFrom(String from) {
+            this.from = from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public void setTo(String to) {
+            this.to = to;
+        }
+
+        public Integer getSlotMinutes() {
+            return slotMinutes;
+        }
+
+        public void setSlotMinutes(Integer slotMinutes) {
+            this.slotMinutes = slotMinutes;
+        }
+    }
+}
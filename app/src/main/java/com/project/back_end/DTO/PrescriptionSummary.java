@@ -0,0 +1,45 @@
+package com.project.back_end.DTO;
+
+/**
+ * PrescriptionSummary
+ *
+ * Projection of a Prescription document with just the fields the doctor dashboard
+ * needs to show a row's prescription status. Used as a query projection, so only
+ * these fields are read from MongoDB.
+ */
+public class PrescriptionSummary {
+
+    private final String id;             // Prescription document ID
+    private final Long appointmentId;    // Appointment the prescription belongs to
+    private final String medication;     // Prescribed medication
+    private final String dosage;         // Dosage instructions
+    private final int refillCount;       // Number of refills
+
+    public PrescriptionSummary(String id, Long appointmentId, String medication, String dosage, int refillCount) {
+        this.id = id;
+        this.appointmentId = appointmentId;
+        this.medication = medication;
+        this.dosage = dosage;
+        this.refillCount = refillCount;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+
+    public String getMedication() {
+        return medication;
+    }
+
+    public String getDosage() {
+        return dosage;
+    }
+
+    public int getRefillCount() {
+        return refillCount;
+    }
+}
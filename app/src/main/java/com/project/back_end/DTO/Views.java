@@ -0,0 +1,47 @@
+package com.project.back_end.DTO;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Views
+ *
+ * Jackson views for list endpoints that accept ?view=summary. Properties annotated with
+ * {@code @JsonView(Views.Summary.class)} make up the compact form; without a view (the
+ * default, ?view=full) every property is serialized as before, so existing clients are
+ * unaffected.
+ */
+public final class Views {
+
+    public static final String SUMMARY = "summary";
+    public static final String FULL = "full";
+
+    /** Properties a list row needs to render. */
+    public interface Summary {
+    }
+
+    private Views() {
+    }
+
+    /**
+     * Resolves a ?view= parameter to the Jackson view to serialize with, or null for the
+     * full representation.
+     *
+     * @throws IllegalArgumentException for an unknown view name
+     */
+    public static Class<?> resolve(String view) {
+        if (view == null || view.isBlank() || FULL.equalsIgnoreCase(view)) return null;
+        if (SUMMARY.equalsIgnoreCase(view)) return Summary.class;
+        throw new IllegalArgumentException("Unknown view '" + view + "', expected summary or full");
+    }
+
+    /**
+     * Re-wraps a response so its body is serialized with the given view (null keeps it as is).
+     */
+    public static ResponseEntity<?> apply(ResponseEntity<?> response, Class<?> view) {
+        if (view == null || response.getBody() == null) return response;
+        MappingJacksonValue body = new MappingJacksonValue(response.getBody());
+        body.setSerializationView(view);
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(body);
+    }
+}
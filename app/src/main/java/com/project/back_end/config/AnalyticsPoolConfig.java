@@ -0,0 +1,36 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * AnalyticsPoolConfig
+ *
+ * Fork/join pool for CPU-bound analytics that split their work across doctors
+ * (e.g. the utilization heatmap). Kept separate from the common pool so a large
+ * report never competes with parallel streams elsewhere in the application.
+ * Parallelism defaults to the number of available processors.
+ *
+ * Metrics: executor.* tagged name=analytics.
+ */
+@Configuration
+public class AnalyticsPoolConfig {
+
+    @Bean(name = "analyticsPool", destroyMethod = "shutdown")
+    public ForkJoinPool analyticsPool(
+            @Value("${app.analytics.parallelism:0}") int parallelism,
+            MeterRegistry meterRegistry) {
+
+        ForkJoinPool pool = new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        new ExecutorServiceMetrics(pool, "analytics", Tags.empty()).bindTo(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.services.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AuthInterceptor
+ *
+ * Authenticates every @RequiresRole endpoint exactly once per request.
+ * The token is read from the "Authorization: Bearer ..." header, falling back to
+ * the legacy {token} path variable. On success the resolved AuthPrincipal is stored
+ * under AuthPrincipal.REQUEST_ATTRIBUTE for controllers and services to consume;
+ * otherwise the request is rejected with 401 before the controller is invoked.
+ */
+@Component
+public class AuthInterceptor implements HandlerInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AuthInterceptor(TokenService tokenService, ObjectMapper objectMapper) {
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) return true;
+
+        RequiresRole requiresRole = handlerMethod.getMethodAnnotation(RequiresRole.class);
+        if (requiresRole == null) return true;
+
+        Map<String, String> pathVariables = pathVariables(request);
+        String token = resolveToken(request);
+
+        AuthPrincipal principal = null;
+        if (token != null) {
+            for (String role : candidateRoles(requiresRole, pathVariables)) {
+                principal = tokenService.resolvePrincipal(token, role);
+                if (principal != null) break;
+            }
+        }
+
+        if (principal == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    Map.of("message", "Invalid or expired token."));
+            return false;
+        }
+
+        request.setAttribute(AuthPrincipal.REQUEST_ATTRIBUTE, principal);
+        return true;
+    }
+
+    /**
+     * Returns the raw token from the Authorization header or the {token} path variable.
+     */
+    public static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        return pathVariables(request).get("token");
+    }
+
+    private List<String> candidateRoles(RequiresRole requiresRole, Map<String, String> pathVariables) {
+        List<String> allowed = Arrays.asList(requiresRole.value());
+        if (!requiresRole.roleVariable().isEmpty()) {
+            String requested = pathVariables.get(requiresRole.roleVariable());
+            if (requested == null || !allowed.contains(requested.toLowerCase())) {
+                return List.of();
+            }
+            return List.of(requested.toLowerCase());
+        }
+        return allowed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> pathVariables(HttpServletRequest request) {
+        Object attribute = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return attribute instanceof Map ? (Map<String, String>) attribute : Map.of();
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CleanupExecutorConfig
+ *
+ * Pool for long-running background cleanups such as deleting a doctor's appointment
+ * history. A single thread by default, so cleanups run one after another and never
+ * hold more than one JDBC connection; submissions beyond the queue are rejected
+ * (AbortPolicy) and reported to the caller.
+ *
+ * Metrics: executor.* tagged name=cleanup.
+ */
+@Configuration
+public class CleanupExecutorConfig {
+
+    @Bean(name = "cleanupExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor cleanupExecutor(
+            @Value("${app.cleanup.threads:1}") int threads,
+            @Value("${app.cleanup.queue-capacity:16}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("cleanup-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "cleanup", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DashboardExecutorConfig
+ *
+ * Bounded pool for the patient dashboard's parallel fan-out to MySQL and MongoDB.
+ * Sized well below the JDBC pool so dashboards cannot take every connection; when
+ * the queue is full a source fails fast (AbortPolicy) and is reported as unavailable
+ * in the dashboard response instead of blocking the request.
+ *
+ * Metrics: executor.* tagged name=dashboard.
+ */
+@Configuration
+public class DashboardExecutorConfig {
+
+    @Bean(name = "dashboardExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor dashboardExecutor(
+            @Value("${app.dashboard.threads:8}") int threads,
+            @Value("${app.dashboard.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("dashboard-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "dashboard", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginExecutorConfig
+ *
+ * Dedicated, bounded pool for password verification. Hash checks are CPU-heavy by
+ * design, so they run here instead of on Tomcat's request threads; when the queue
+ * is full new logins are rejected immediately rather than piling up and starving
+ * the booking and listing endpoints.
+ *
+ * Metrics: executor.* tagged name=login (queue depth, active threads, completed)
+ * and login.executor.rejected.
+ */
+@Configuration
+public class LoginExecutorConfig {
+
+    @Bean(name = "loginExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor loginExecutor(
+            @Value("${auth.login.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${auth.login.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+
+        Counter rejected = Counter.builder("login.executor.rejected")
+                .description("Logins rejected because the login executor queue was full")
+                .register(meterRegistry);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("login-"),
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Login executor saturated");
+                });
+
+        new ExecutorServiceMetrics(executor, "login", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.back_end.config;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.services.PrescriptionRollupService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.stereotype.Component;
+
+/**
+ * MongoIndexInitializer
+ *
+ * Creates the MongoDB indexes the application's queries rely on once at startup.
+ * Index creation is idempotent, so this is safe on every boot.
+ *
+ * Runs during context refresh, once all singletons exist but before the web server
+ * starts and scheduled jobs run, so a failure to create a required index aborts startup
+ * before any request or relay can write to the collection.
+ */
+@Component
+public class MongoIndexInitializer implements SmartInitializingSingleton {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        IndexOperations prescriptions = mongoTemplate.indexOps(Prescription.class);
+
+        // One prescription per appointment; enforced here so creates need no pre-check.
+        // Without it double submissions would be accepted, so a failure stops startup.
+        try {
+            prescriptions.ensureIndex(new Index()
+                    .on("appointmentId", Sort.Direction.ASC)
+                    .unique()
+                    .named("appointmentId_unique"));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create unique index appointmentId_unique on prescriptions; "
+                    + "remove duplicate prescriptions per appointment and restart", e);
+        }
+
+        // Patient history: newest first within a patient
+        ensure(prescriptions, new Index()
+                .on("patientId", Sort.Direction.ASC)
+                .on("issuedAt", Sort.Direction.DESC)
+                .named("patientId_issuedAt"));
+
+        // Full-text search; weights rank medication matches above notes and dosage
+        ensure(prescriptions, new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .onField("medication", 10F)
+                .onField("doctorNotes", 5F)
+                .onField("dosage", 2F)
+                .named("prescription_text")
+                .build());
+
+        // Analytics rollups: new prescriptions not yet counted
+        ensure(prescriptions, new Index()
+                .on("outbox.rolledUp", Sort.Direction.ASC)
+                .named("outbox_rolled_up"));
+
+        // Top medications of a doctor in a month (kept across rebuilds, $out preserves indexes)
+        ensure(mongoTemplate.indexOps(PrescriptionRollupService.DOCTOR_MONTH_COLLECTION), new Index()
+                .on("doctorId", Sort.Direction.ASC)
+                .on("month", Sort.Direction.ASC)
+                .on("count", Sort.Direction.DESC)
+                .named("doctorId_month_count"));
+
+        // Outbox relay: due PENDING records, oldest first
+        ensure(prescriptions, new Index()
+                .on("outbox.status", Sort.Direction.ASC)
+                .on("outbox.nextAttemptAt", Sort.Direction.ASC)
+                .named("outbox_status_next_attempt"));
+    }
+
+    /**
+     * Creates one best-effort index (queries still work without it, only slower).
+     * A failure is logged and does not stop startup or the remaining indexes.
+     */
+    private static void ensure(IndexOperations indexOps, IndexDefinition index) {
+        try {
+            indexOps.ensureIndex(index);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoPoolConfig
+ *
+ * Sizes the MongoDB driver's connection pool from properties, so it can be raised
+ * together with the JDBC pool when requests run on virtual threads (profile "virtual").
+ * The wait timeout bounds how long a request queues for a connection when the pool
+ * is exhausted, instead of the driver's default of two minutes.
+ */
+@Configuration
+public class MongoPoolConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+            @Value("${app.mongodb.max-pool-size:100}") int maxPoolSize,
+            @Value("${app.mongodb.min-pool-size:0}") int minPoolSize,
+            @Value("${app.mongodb.max-wait-ms:5000}") long maxWaitMillis) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .minSize(minPoolSize)
+                .maxWaitTime(maxWaitMillis, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.back_end.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * ReadWriteRoutingDataSource
+ *
+ * Sends read-only transactions to the replica and everything else (read-write
+ * transactions and non-transactional access) to the primary. A read-only transaction
+ * of a user who wrote moments ago also goes to the primary (see ReadYourWritesGuard).
+ *
+ * The routing key is taken when a connection is first used, so the data source must be
+ * wrapped in a LazyConnectionDataSourceProxy: the transaction manager asks for the
+ * connection before the read-only flag of the new transaction is visible. Use create().
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReadYourWritesGuard guard;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesGuard guard) {
+        this.guard = guard;
+    }
+
+    /**
+     * Builds the routing data source over a primary and a replica, wrapped for lazy
+     * connection acquisition.
+     */
+    public static DataSource create(DataSource primary, DataSource replica, ReadYourWritesGuard guard) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(guard);
+        routing.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String principal = ReadYourWritesGuard.currentPrincipalKey();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (principal != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                guard.recordWrite(principal);
+            }
+            return PRIMARY;
+        }
+        return principal != null && guard.isPinned(principal) ? PRIMARY : REPLICA;
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.config;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReadYourWritesGuard
+ *
+ * Remembers which users ran a read-write transaction in the last few seconds, so their
+ * read-only transactions keep going to the primary until the replica has caught up
+ * (e.g. a patient who just booked immediately reloads availability or history).
+ * The window should exceed the replica's normal replication lag.
+ *
+ * Users are identified by the AuthPrincipal of the current request; work outside a
+ * request (scheduled jobs, executor threads) is never pinned.
+ */
+public class ReadYourWritesGuard {
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrite = new ConcurrentHashMap<>();
+
+    public ReadYourWritesGuard(long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    public void recordWrite(String principalKey) {
+        lastWrite.put(principalKey, System.nanoTime());
+    }
+
+    /**
+     * True if the user wrote within the window and must still read from the primary.
+     */
+    public boolean isPinned(String principalKey) {
+        Long at = lastWrite.get(principalKey);
+        return at != null && System.nanoTime() - at < windowNanos;
+    }
+
+    /**
+     * Drops entries whose window has passed.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-ms:5000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrite.values().removeIf(at -> now - at >= windowNanos);
+    }
+
+    /**
+     * "role:id" of the principal of the current request, or null outside an authenticated request.
+     */
+    public static String currentPrincipalKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+        Object principal = attributes.getAttribute(AuthPrincipal.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return principal instanceof AuthPrincipal p ? p.getRole() + ":" + p.getId() : null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.project.back_end.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * RequiresRole
+ *
+ * Marks a controller method as authenticated. The AuthInterceptor verifies the
+ * request's token once, before the method runs, and exposes the resolved
+ * AuthPrincipal as a request attribute.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresRole {
+
+    /** Roles allowed to call the endpoint ("admin", "doctor", "patient"). */
+    String[] value();
+
+    /**
+     * Optional path variable naming the caller's role (e.g. "user" in
+     * /availability/{user}/...). When present it selects which of the allowed
+     * roles the token is verified against.
+     */
+    String roleVariable() default "";
+}
@@ -0,0 +1,70 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * StaticAssetCacheFilter
+ *
+ * Marks content-hashed static files (name.<16 hex>.ext, produced by the build's asset
+ * stage) as cacheable for a year and immutable: their URL changes whenever their content
+ * does, so browsers never need to revalidate them. Unhashed files keep the default
+ * Last-Modified revalidation. Error responses for hashed URLs are never cached.
+ *
+ * The precompressed .br/.gz variant is picked by the resource chain
+ * (spring.web.resources.chain.compressed), so nothing is compressed per request.
+ */
+@Component
+public class StaticAssetCacheFilter extends OncePerRequestFilter {
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    // Must match AssetPipeline's naming
+    private static final Pattern FINGERPRINTED = Pattern.compile("\\.[0-9a-f]{16}\\.[A-Za-z0-9]+$");
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())
+                || !FINGERPRINTED.matcher(request.getRequestURI()).find();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        chain.doFilter(request, new HttpServletResponseWrapper(response) {
+            @Override
+            public void setStatus(int status) {
+                if (status >= 400) noStore();
+                super.setStatus(status);
+            }
+
+            @Override
+            public void sendError(int status) throws IOException {
+                noStore();
+                super.sendError(status);
+            }
+
+            @Override
+            public void sendError(int status, String message) throws IOException {
+                noStore();
+                super.sendError(status, message);
+            }
+
+            private void noStore() {
+                setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            }
+        });
+    }
+}
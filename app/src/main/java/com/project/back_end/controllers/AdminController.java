@@ -1,12 +1,15 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.models.Admin;
-import com.project.back_end.services.AdminService;
+import com.project.back_end.services.LoginRateLimiter;
+import com.project.back_end.services.Service;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * AdminController handles login requests for the Admin user.
@@ -16,20 +19,29 @@ import java.util.Map;
 @RequestMapping("${api.path}admin")
 public class AdminController {
 
-    private final AdminService adminService;
+    private final Service service;
+    private final LoginRateLimiter loginRateLimiter;
 
     // ✅ Constructor Injection
     @Autowired
-    public AdminController(AdminService adminService) {
-        this.adminService = adminService;
+    public AdminController(Service service, LoginRateLimiter loginRateLimiter) {
+        this.service = service;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     // ---------------------------------------------------------------------
     // 🟩 POST: /api/v1/admin/login
     // ---------------------------------------------------------------------
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> adminLogin(@RequestBody Admin admin) {
-        // Delegates login validation to the service layer
-        return adminService.validateAdmin(admin);
+    public CompletableFuture<ResponseEntity<Map<String, String>>> adminLogin(@RequestBody Admin admin,
+                                                                             HttpServletRequest request) {
+        // Rate-limited attempts are answered before any admin lookup
+        ResponseEntity<Map<String, String>> rejected = loginRateLimiter.check(admin.getUsername(), request);
+        if (rejected != null) {
+            return CompletableFuture.completedFuture(rejected);
+        }
+
+        // Delegates login validation to the service layer; completes on the login executor
+        return service.validateAdmin(admin);
     }
 }
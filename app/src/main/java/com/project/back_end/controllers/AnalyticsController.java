@@ -0,0 +1,120 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.config.RequiresRole;
+import com.project.back_end.services.PrescriptionRollupService;
+import com.project.back_end.services.UtilizationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * AnalyticsController
+ *
+ * Admin-only prescribing analytics. Every read is served from the pre-aggregated
+ * rollup collections, so latency depends on the size of the answer, not on the
+ * number of prescriptions stored. Doctor utilization is computed on demand in one
+ * streaming pass over the month's appointments (see UtilizationService).
+ *
+ * Base URL: ${api.path}admin/analytics
+ */
+@RestController
+@RequestMapping("${api.path}" + "admin/analytics")
+public class AnalyticsController {
+
+    private final PrescriptionRollupService prescriptionRollupService;
+    private final UtilizationService utilizationService;
+
+    // ✅ Constructor Injection
+    @Autowired
+    public AnalyticsController(PrescriptionRollupService prescriptionRollupService,
+                               UtilizationService utilizationService) {
+        this.prescriptionRollupService = prescriptionRollupService;
+        this.utilizationService = utilizationService;
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟩 GET: /admin/analytics/top-medications?doctorId=&month=yyyy-MM&limit=
+    // ---------------------------------------------------------------------
+    @GetMapping("/top-medications")
+    @RequiresRole("admin")
+    public ResponseEntity<Map<String, Object>> getTopMedications(
+            @RequestParam Long doctorId,
+            @RequestParam String month,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (!isMonth(month)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid month, expected yyyy-MM"));
+        }
+        return prescriptionRollupService.getTopMedications(doctorId, month, limit);
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟦 GET: /admin/analytics/refill-trend?from=yyyy-MM&to=yyyy-MM[&doctorId=]
+    // ---------------------------------------------------------------------
+    @GetMapping("/refill-trend")
+    @RequiresRole("admin")
+    public ResponseEntity<Map<String, Object>> getRefillTrend(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) Long doctorId) {
+        if (!isMonth(from) || !isMonth(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid month, expected yyyy-MM"));
+        }
+        return prescriptionRollupService.getRefillTrend(from, to, doctorId);
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟥 POST: /admin/analytics/rebuild  (recompute rollups from scratch)
+    // ---------------------------------------------------------------------
+    @PostMapping("/rebuild")
+    @RequiresRole("admin")
+    public ResponseEntity<Map<String, String>> rebuild() {
+        try {
+            prescriptionRollupService.rebuild();
+            return ResponseEntity.ok(Map.of("message", "Analytics rollups rebuilt"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error rebuilding analytics rollups"));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟦 GET: /admin/analytics/utilization?month=yyyy-MM&specialty=&doctorId=
+    //    Month-by-hour heatmaps of booked ÷ offered slots per specialty;
+    //    with doctorId, that doctor's own heatmap as well
+    // ---------------------------------------------------------------------
+    @GetMapping("/utilization")
+    @RequiresRole("admin")
+    public ResponseEntity<Map<String, Object>> getUtilization(
+            @RequestParam String month,
+            @RequestParam(required = false) String specialty,
+            @RequestParam(required = false) Long doctorId) {
+        if (!isMonth(month)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid month, expected yyyy-MM"));
+        }
+        try {
+            return utilizationService.getHeatmap(YearMonth.parse(month), specialty, doctorId);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error computing utilization"));
+        }
+    }
+
+    private static boolean isMonth(String value) {
+        try {
+            YearMonth.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
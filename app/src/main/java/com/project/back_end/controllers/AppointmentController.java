@@ -1,5 +1,7 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.Service;
@@ -8,11 +10,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 /**
  * AppointmentController handles CRUD operations for appointments.
- * It validates tokens and ensures only authorized users perform actions.
+ * Tokens are verified once per request by the AuthInterceptor, either from the
+ * Authorization header or from the legacy {token} path segment.
  */
 @RestController
 @RequestMapping("/appointments")
@@ -29,22 +33,18 @@ public class AppointmentController {
     }
 
     // ---------------------------------------------------------------------
-    // 🟩 GET: /appointments/{date}/{patientName}/{token}
+    // 🟩 GET: /appointments/{date}/{patientName}[/{token}]
     // ---------------------------------------------------------------------
-    @GetMapping("/{date}/{patientName}/{token}")
+    @GetMapping({"/{date}/{patientName}/{token}", "/{date}/{patientName}"})
+    @RequiresRole("doctor")
     public ResponseEntity<?> getAppointments(
             @PathVariable String date,
             @PathVariable String patientName,
-            @PathVariable String token) {
-
-        // Validate token for doctor role
-        if (!service.validateToken(token, "doctor")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid or expired token. Access denied."));
-        }
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
 
         try {
-            return appointmentService.getAppointment(date, patientName);
+            return ResponseEntity.ok(
+                    appointmentService.getAppointment(patientName, LocalDate.parse(date), principal));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error fetching appointments"));
@@ -52,18 +52,11 @@ public class AppointmentController {
     }
 
     // ---------------------------------------------------------------------
-    // 🟦 POST: /appointments/{token}
+    // 🟦 POST: /appointments[/{token}]
     // ---------------------------------------------------------------------
-    @PostMapping("/{token}")
-    public ResponseEntity<Map<String, String>> bookAppointment(
-            @PathVariable String token,
-            @RequestBody Appointment appointment) {
-
-        // Validate token for patient role
-        if (!service.validateToken(token, "patient")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid or expired token."));
-        }
+    @PostMapping({"/{token}", ""})
+    @RequiresRole("patient")
+    public ResponseEntity<Map<String, String>> bookAppointment(@RequestBody Appointment appointment) {
 
         // Validate appointment details
         ResponseEntity<Map<String, String>> validationResponse = service.validateAppointment(appointment);
@@ -81,18 +74,11 @@ public class AppointmentController {
     }
 
     // ---------------------------------------------------------------------
-    // 🟨 PUT: /appointments/{token}
+    // 🟨 PUT: /appointments[/{token}]
     // ---------------------------------------------------------------------
-    @PutMapping("/{token}")
-    public ResponseEntity<Map<String, String>> updateAppointment(
-            @PathVariable String token,
-            @RequestBody Appointment appointment) {
-
-        // Validate token for patient
-        if (!service.validateToken(token, "patient")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid or expired token."));
-        }
+    @PutMapping({"/{token}", ""})
+    @RequiresRole("patient")
+    public ResponseEntity<Map<String, String>> updateAppointment(@RequestBody Appointment appointment) {
 
         try {
             return appointmentService.updateAppointment(appointment);
@@ -103,21 +89,35 @@ public class AppointmentController {
     }
 
     // ---------------------------------------------------------------------
-    // 🟥 DELETE: /appointments/{id}/{token}
+    // 🟪 PUT: /appointments/{id}/status/{status}[/{token}]
+    //    Doctors change their own appointments, admins any
     // ---------------------------------------------------------------------
-    @DeleteMapping("/{id}/{token}")
-    public ResponseEntity<Map<String, String>> cancelAppointment(
+    @PutMapping({"/{id}/status/{status}/{token}", "/{id}/status/{status}"})
+    @RequiresRole({"doctor", "admin"})
+    public ResponseEntity<Map<String, String>> changeStatus(
             @PathVariable Long id,
-            @PathVariable String token) {
+            @PathVariable int status,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
 
-        // Validate token for patient
-        if (!service.validateToken(token, "patient")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid or expired token."));
+        try {
+            return appointmentService.changeStatus(id, status, principal);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error updating appointment status"));
         }
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟥 DELETE: /appointments/{id}[/{token}]
+    // ---------------------------------------------------------------------
+    @DeleteMapping({"/{id}/{token}", "/{id}"})
+    @RequiresRole("patient")
+    public ResponseEntity<Map<String, String>> cancelAppointment(
+            @PathVariable Long id,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
 
         try {
-            return appointmentService.cancelAppointment(id);
+            return appointmentService.cancelAppointment(id, principal);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error canceling appointment"));
@@ -0,0 +1,43 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.config.AuthInterceptor;
+import com.project.back_end.config.RequiresRole;
+import com.project.back_end.services.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * AuthController handles session-level operations shared by all roles.
+ * Currently: logout, which revokes the caller's token until it expires.
+ */
+@RestController
+@RequestMapping("${api.path}" + "auth")
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    // ✅ Constructor Injection
+    @Autowired
+    public AuthController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟥 POST: /auth/logout[/{token}]
+    // ---------------------------------------------------------------------
+    @PostMapping({"/logout", "/logout/{token}"})
+    @RequiresRole({"admin", "doctor", "patient"})
+    public ResponseEntity<Map<String, String>> logout(HttpServletRequest request) {
+        if (!tokenService.revokeToken(AuthInterceptor.resolveToken(request))) {
+            // Tokens issued before role claims carry no ID and simply expire
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Token cannot be revoked; please log in again."));
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+}
@@ -1,15 +1,23 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.DTO.AvailabilityPatch;
+import com.project.back_end.DTO.Views;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Doctor;
-import com.project.back_end.model.Login;
+import com.project.back_end.models.Login;
+import com.project.back_end.services.DoctorDeletionService;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.LoginRateLimiter;
 import com.project.back_end.services.Service;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DoctorController handles all endpoints related to Doctor operations —
@@ -21,29 +29,27 @@ public class DoctorController {
 
     private final DoctorService doctorService;
     private final Service service;
+    private final LoginRateLimiter loginRateLimiter;
+    private final DoctorDeletionService doctorDeletionService;
 
     // ✅ Constructor injection
     @Autowired
-    public DoctorController(DoctorService doctorService, Service service) {
+    public DoctorController(DoctorService doctorService, Service service, LoginRateLimiter loginRateLimiter,
+                            DoctorDeletionService doctorDeletionService) {
         this.doctorService = doctorService;
         this.service = service;
+        this.loginRateLimiter = loginRateLimiter;
+        this.doctorDeletionService = doctorDeletionService;
     }
 
     // ---------------------------------------------------------------------
     // 🟩 1. Get Doctor Availability
     // ---------------------------------------------------------------------
-    @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
+    @GetMapping({"/availability/{user}/{doctorId}/{date}/{token}", "/availability/{user}/{doctorId}/{date}"})
+    @RequiresRole(value = {"admin", "doctor", "patient"}, roleVariable = "user")
     public ResponseEntity<Map<String, Object>> getDoctorAvailability(
-            @PathVariable String user,
             @PathVariable Long doctorId,
-            @PathVariable String date,
-            @PathVariable String token) {
-
-        // Validate token
-        if (!service.validateToken(token, user)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid or expired token."));
-        }
+            @PathVariable String date) {
 
         try {
             return doctorService.getDoctorAvailability(doctorId, date);
@@ -55,11 +61,19 @@ public class DoctorController {
 
     // ---------------------------------------------------------------------
     // 🟦 2. Get List of Doctors
+    //    ?view=summary returns only id, name, specialty and availableTimes
     // ---------------------------------------------------------------------
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getDoctors() {
+    public ResponseEntity<?> getDoctors(@RequestParam(required = false) String view) {
+        Class<?> jsonView;
         try {
-            return doctorService.getDoctors();
+            jsonView = Views.resolve(view);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+
+        try {
+            return Views.apply(ResponseEntity.ok(Map.of("doctors", doctorService.getDoctors())), jsonView);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error fetching doctor list."));
@@ -69,16 +83,9 @@ public class DoctorController {
     // ---------------------------------------------------------------------
     // 🟨 3. Add New Doctor
     // ---------------------------------------------------------------------
-    @PostMapping("/{token}")
-    public ResponseEntity<Map<String, String>> saveDoctor(
-            @PathVariable String token,
-            @RequestBody Doctor doctor) {
-
-        // Only admins can add doctors
-        if (!service.validateToken(token, "admin")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Unauthorized: invalid or expired token."));
-        }
+    @PostMapping({"/{token}", ""})
+    @RequiresRole("admin") // Only admins can add doctors
+    public ResponseEntity<Map<String, String>> saveDoctor(@RequestBody Doctor doctor) {
 
         try {
             return doctorService.saveDoctor(doctor);
@@ -95,28 +102,29 @@ public class DoctorController {
     // 🟪 4. Doctor Login
     // ---------------------------------------------------------------------
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> doctorLogin(@RequestBody Login login) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> doctorLogin(@RequestBody Login login,
+                                                                              HttpServletRequest request) {
+        // Rate-limited attempts are answered before any doctor lookup
+        ResponseEntity<Map<String, String>> rejected = loginRateLimiter.check(login.getIdentifier(), request);
+        if (rejected != null) {
+            return CompletableFuture.completedFuture(rejected);
+        }
+
         try {
+            // Completes on the login executor; the servlet thread is released meanwhile
             return doctorService.validateDoctor(login);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Error validating login credentials."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error validating login credentials.")));
         }
     }
 
     // ---------------------------------------------------------------------
     // 🟧 5. Update Doctor Details
     // ---------------------------------------------------------------------
-    @PutMapping("/{token}")
-    public ResponseEntity<Map<String, String>> updateDoctor(
-            @PathVariable String token,
-            @RequestBody Doctor doctor) {
-
-        // Only admins can update doctors
-        if (!service.validateToken(token, "admin")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Unauthorized: invalid or expired token."));
-        }
+    @PutMapping({"/{token}", ""})
+    @RequiresRole("admin") // Only admins can update doctors
+    public ResponseEntity<Map<String, String>> updateDoctor(@RequestBody Doctor doctor) {
 
         try {
             return doctorService.updateDoctor(doctor);
@@ -131,27 +139,20 @@ public class DoctorController {
 
     // ---------------------------------------------------------------------
     // 🟥 6. Delete Doctor
+    //    The doctor is deactivated at once; ?async=true returns 202 and removes
+    //    the appointment history in the background (progress: GET /{id}/deletion)
     // ---------------------------------------------------------------------
-    @DeleteMapping("/{id}/{token}")
-    public ResponseEntity<Map<String, String>> deleteDoctor(
-            @PathVariable Long id,
-            @PathVariable String token) {
-
-        // Only admins can delete doctors
-        if (!service.validateToken(token, "admin")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Unauthorized: invalid or expired token."));
-        }
+    @DeleteMapping({"/{id}/{token}", "/{id}"})
+    @RequiresRole("admin") // Only admins can delete doctors
+    public ResponseEntity<Map<String, Object>> deleteDoctor(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "false") boolean async) {
+        return doctorDeletionService.deleteDoctor(id, async);
+    }
 
-        try {
-            return doctorService.deleteDoctor(id);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "Doctor not found with ID: " + id));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Some internal error occurred."));
-        }
+    @GetMapping("/{id}/deletion")
+    @RequiresRole("admin")
+    public ResponseEntity<Map<String, Object>> getDeletionProgress(@PathVariable Long id) {
+        return doctorDeletionService.getDeletion(id);
     }
 
     // ---------------------------------------------------------------------
@@ -170,4 +171,23 @@ public class DoctorController {
                     .body(Map.of("error", "Error filtering doctors."));
         }
     }
+
+    // ---------------------------------------------------------------------
+    // ⬜ 8. Edit Availability (incremental)
+    //    Body: {"add": [...], "remove": [...], "addRanges": [...], "removeRanges": [...]}
+    // ---------------------------------------------------------------------
+    @PatchMapping("/{id}/availability")
+    @RequiresRole({"admin", "doctor"}) // Admins, or the doctor themselves
+    public ResponseEntity<Map<String, Object>> patchAvailability(
+            @PathVariable Long id,
+            @RequestBody AvailabilityPatch patch,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        try {
+            return doctorService.patchAvailability(id, patch, principal);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error updating availability."));
+        }
+    }
 }
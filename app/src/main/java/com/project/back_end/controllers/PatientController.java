@@ -1,15 +1,24 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.DTO.Views;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Patient;
 import com.project.back_end.models.Login;
+import com.project.back_end.services.LoginRateLimiter;
+import com.project.back_end.services.PatientDashboardService;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * PatientController
@@ -33,25 +42,21 @@ public class PatientController {
     @Autowired
     private Service service;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private PatientDashboardService patientDashboardService;
+
     // --------------------------------------------------------------------
     // 1. Get Patient Details
     // --------------------------------------------------------------------
-    @GetMapping("/{token}")
-    public ResponseEntity<?> getPatientDetails(@PathVariable String token) {
+    @GetMapping({"/{token}", ""})
+    @RequiresRole("patient")
+    public ResponseEntity<?> getPatientDetails(
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
         try {
-            String validationResult = service.validateToken(token, "patient");
-            if (!validationResult.equals("valid")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", validationResult));
-            }
-
-            Patient patient = patientService.getPatientDetails(token);
-            if (patient == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("message", "Patient not found"));
-            }
-
-            return ResponseEntity.ok(patient);
+            return patientService.getPatientDetails(principal);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -90,30 +95,44 @@ public class PatientController {
     // 3. Patient Login
     // --------------------------------------------------------------------
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Login login) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestBody Login login,
+                                                                        HttpServletRequest request) {
+        // Rate-limited attempts are answered before any patient lookup
+        ResponseEntity<Map<String, String>> rejected = loginRateLimiter.check(login.getIdentifier(), request);
+        if (rejected != null) {
+            return CompletableFuture.completedFuture(rejected);
+        }
+
         try {
-            Map<String, Object> response = service.validatePatientLogin(login);
-            return ResponseEntity.ok(response);
+            // Completes on the login executor; the servlet thread is released meanwhile
+            return service.validatePatientLogin(login);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Invalid credentials"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Invalid credentials")));
         }
     }
 
     // --------------------------------------------------------------------
     // 4. Get Patient Appointments
+    //    /patient/appointments reads the patient ID from the token itself;
+    //    ?view=summary drops the derived fields and contact details
     // --------------------------------------------------------------------
-    @GetMapping("/{id}/{token}")
-    public ResponseEntity<?> getPatientAppointments(@PathVariable int id, @PathVariable String token) {
+    @GetMapping({"/{id}/{token}", "/appointments"})
+    @RequiresRole("patient")
+    public ResponseEntity<?> getPatientAppointments(
+            @PathVariable(required = false) Long id,
+            @RequestParam(required = false) String view,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        Class<?> jsonView;
         try {
-            String validationResult = service.validateToken(token, "patient");
-            if (!validationResult.equals("valid")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", validationResult));
-            }
+            jsonView = Views.resolve(view);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
 
-            var appointments = patientService.getPatientAppointment(id);
-            return ResponseEntity.ok(Map.of("appointments", appointments));
+        try {
+            return Views.apply(
+                    patientService.getPatientAppointment(id != null ? id : principal.getId(), principal), jsonView);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -124,24 +143,53 @@ public class PatientController {
     // --------------------------------------------------------------------
     // 5. Filter Patient Appointments
     // --------------------------------------------------------------------
-    @GetMapping("/filter/{condition}/{name}/{token}")
+    @GetMapping({"/filter/{condition}/{name}/{token}", "/filter/{condition}/{name}"})
+    @RequiresRole("patient")
     public ResponseEntity<?> filterPatientAppointments(
             @PathVariable String condition,
             @PathVariable String name,
-            @PathVariable String token) {
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
         try {
-            String validationResult = service.validateToken(token, "patient");
-            if (!validationResult.equals("valid")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", validationResult));
-            }
-
-            var filteredAppointments = service.filterPatient(condition, name);
-            return ResponseEntity.ok(Map.of("filteredAppointments", filteredAppointments));
+            return service.filterPatient(condition, name, principal);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error filtering appointments"));
         }
     }
+
+    // --------------------------------------------------------------------
+    // 6. Patient Dashboard
+    //    Details, appointments and prescriptions in one request; the sources
+    //    are fetched in parallel and any that time out are listed in "errors"
+    // --------------------------------------------------------------------
+    @GetMapping("/dashboard")
+    @RequiresRole("patient")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getDashboard(
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        return patientDashboardService.getDashboard(principal);
+    }
+
+    // --------------------------------------------------------------------
+    // 7. Appointment History
+    //    /patient/history?from=yyyy-MM-dd&to=yyyy-MM-dd (both optional);
+    //    archived appointments are included when the range reaches them
+    // --------------------------------------------------------------------
+    @GetMapping("/history")
+    @RequiresRole("patient")
+    public ResponseEntity<?> getAppointmentHistory(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from != null ? LocalDate.parse(from) : null;
+            toDate = to != null ? LocalDate.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Invalid date format, expected yyyy-MM-dd"));
+        }
+        return patientService.getAppointmentHistory(principal, fromDate, toDate);
+    }
 }
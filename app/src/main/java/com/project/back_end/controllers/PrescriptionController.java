@@ -1,14 +1,19 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.RequiresRole;
 import com.project.back_end.models.Prescription;
+import com.project.back_end.services.PrescriptionHistoryService;
+import com.project.back_end.services.PrescriptionSearchService;
 import com.project.back_end.services.PrescriptionService;
-import com.project.back_end.services.AppointmentService;
-import com.project.back_end.services.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,39 +35,21 @@ public class PrescriptionController {
     private PrescriptionService prescriptionService;
 
     @Autowired
-    private AppointmentService appointmentService;
+    private PrescriptionHistoryService prescriptionHistoryService;
 
     @Autowired
-    private Service service;
+    private PrescriptionSearchService prescriptionSearchService;
 
     // --------------------------------------------------------------------
     // 1. Save Prescription
     // --------------------------------------------------------------------
-    @PostMapping("/{token}")
-    public ResponseEntity<?> savePrescription(
-            @PathVariable String token,
-            @RequestBody Prescription prescription) {
+    @PostMapping({"/{token}", ""})
+    @RequiresRole("doctor")
+    public ResponseEntity<?> savePrescription(@RequestBody Prescription prescription) {
 
         try {
-            // Validate token for doctor role
-            String validationResult = service.validateToken(token, "doctor");
-            if (!validationResult.equals("valid")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", validationResult));
-            }
-
-            // Save prescription
-            boolean saved = prescriptionService.savePrescription(prescription);
-
-            if (saved) {
-                // Optionally update appointment status after prescription is created
-                appointmentService.markAsPrescribed(prescription.getAppointmentId());
-                return ResponseEntity.status(HttpStatus.CREATED)
-                        .body(Map.of("message", "Prescription saved successfully"));
-            } else {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(Map.of("message", "Failed to save prescription"));
-            }
+            // Single MongoDB write; the appointment status is updated by the outbox relay
+            return prescriptionService.savePrescription(prescription);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -73,19 +60,11 @@ public class PrescriptionController {
     // --------------------------------------------------------------------
     // 2. Get Prescription by Appointment ID
     // --------------------------------------------------------------------
-    @GetMapping("/{appointmentId}/{token}")
-    public ResponseEntity<?> getPrescription(
-            @PathVariable int appointmentId,
-            @PathVariable String token) {
+    @GetMapping({"/{appointmentId}/{token}", "/{appointmentId}"})
+    @RequiresRole("doctor")
+    public ResponseEntity<?> getPrescription(@PathVariable int appointmentId) {
 
         try {
-            // Validate token for doctor role
-            String validationResult = service.validateToken(token, "doctor");
-            if (!validationResult.equals("valid")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", validationResult));
-            }
-
             // Fetch prescription by appointment ID
             Prescription prescription = prescriptionService.getPrescription(appointmentId);
 
@@ -101,4 +80,72 @@ public class PrescriptionController {
                     .body(Map.of("message", "Error retrieving prescription"));
         }
     }
+
+    // --------------------------------------------------------------------
+    // 3. Prescription Summaries for a list of the logged-in doctor's appointments (one query)
+    // --------------------------------------------------------------------
+    @PostMapping("/summaries")
+    @RequiresRole("doctor")
+    public ResponseEntity<Map<String, Object>> getPrescriptionSummaries(
+            @RequestBody List<Long> appointmentIds,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        return prescriptionService.getPrescriptionSummaries(principal.getId(), appointmentIds);
+    }
+
+    // --------------------------------------------------------------------
+    // 4. Prescription Summaries for the logged-in doctor's appointments on a date
+    // --------------------------------------------------------------------
+    @GetMapping("/summaries/{date}")
+    @RequiresRole("doctor")
+    public ResponseEntity<Map<String, Object>> getPrescriptionSummaries(
+            @PathVariable String date,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        try {
+            return prescriptionService.getPrescriptionSummaries(principal.getId(), LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid date, expected yyyy-MM-dd"));
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // 5. Patient Prescription History (paged, newest first)
+    //    ?latest=true keeps only the most recent prescription per medication.
+    //    Patients can only read their own history, doctors only their patients'.
+    // --------------------------------------------------------------------
+    @GetMapping({"/history/{patientId}", "/history"})
+    @RequiresRole({"doctor", "patient"})
+    public ResponseEntity<Map<String, Object>> getPrescriptionHistory(
+            @PathVariable(required = false) Long patientId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean latest,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+
+        if ("patient".equals(principal.getRole())) {
+            patientId = principal.getId();
+        } else if (patientId == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Patient ID is required"));
+        } else if (!prescriptionHistoryService.isTreatingDoctor(principal.getId(), patientId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Not a patient of this doctor"));
+        }
+        return prescriptionHistoryService.getHistory(patientId, page, size, latest);
+    }
+
+    // --------------------------------------------------------------------
+    // 6. Full-text Search (medication, doctor notes, dosage), ranked by relevance
+    //    Limited to the logged-in doctor's own prescriptions
+    // --------------------------------------------------------------------
+    @GetMapping("/search")
+    @RequiresRole("doctor")
+    public ResponseEntity<Map<String, Object>> searchPrescriptions(
+            @RequestParam("q") String text,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        return prescriptionSearchService.search(text, principal.getId(), patientId, page, size);
+    }
 }
@@ -0,0 +1,62 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.config.RequiresRole;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.services.ReactivePrescriptionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReactivePrescriptionController
+ *
+ * Non-blocking prescription endpoints running alongside PrescriptionController.
+ * Handlers return Mono/Flux, so the servlet thread is released as soon as the
+ * MongoDB query is issued and the response is written when the data arrives.
+ *
+ * Base URL: ${api.path}reactive/prescription
+ */
+@RestController
+@RequestMapping("${api.path}" + "reactive/prescription")
+public class ReactivePrescriptionController {
+
+    // --------------------------------------------------------------------
+    // Dependencies
+    // --------------------------------------------------------------------
+    @Autowired
+    private ReactivePrescriptionService reactivePrescriptionService;
+
+    // --------------------------------------------------------------------
+    // 1. Save Prescription
+    // --------------------------------------------------------------------
+    @PostMapping
+    @RequiresRole("doctor")
+    public Mono<ResponseEntity<Map<String, String>>> savePrescription(@RequestBody Prescription prescription) {
+        return reactivePrescriptionService.savePrescription(prescription);
+    }
+
+    // --------------------------------------------------------------------
+    // 2. Get Prescriptions by Appointment ID
+    // --------------------------------------------------------------------
+    @GetMapping("/{appointmentId}")
+    @RequiresRole("doctor")
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescription(@PathVariable Long appointmentId) {
+        return reactivePrescriptionService.getPrescription(appointmentId);
+    }
+
+    // --------------------------------------------------------------------
+    // 3. Stream Prescriptions for many appointments (newline-delimited JSON)
+    //    Documents are written one per line as the client reads them
+    // --------------------------------------------------------------------
+    @PostMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @RequiresRole("doctor")
+    public Flux<Prescription> streamPrescriptions(@RequestBody List<Long> appointmentIds) {
+        return reactivePrescriptionService.streamPrescriptions(appointmentIds);
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.RequiresRole;
+import com.project.back_end.models.AvailabilityTemplate;
+import com.project.back_end.models.TimeOff;
+import com.project.back_end.services.AvailabilityScheduleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * ScheduleController
+ *
+ * Recurring weekly availability of a doctor: templates ("every Monday 09:00–12:00"),
+ * time off (holidays, leave, blocked hours) and the slots they expand to.
+ * Admins, or the doctor themselves, may edit a schedule.
+ *
+ * Base URL: ${api.path}doctor/{doctorId}/schedule
+ */
+@RestController
+@RequestMapping("${api.path}" + "doctor/{doctorId}/schedule")
+public class ScheduleController {
+
+    private final AvailabilityScheduleService scheduleService;
+
+    // ✅ Constructor Injection
+    @Autowired
+    public ScheduleController(AvailabilityScheduleService scheduleService) {
+        this.scheduleService = scheduleService;
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟩 GET: templates and upcoming time off
+    // ---------------------------------------------------------------------
+    @GetMapping
+    @RequiresRole({"admin", "doctor"})
+    public ResponseEntity<Map<String, Object>> getSchedule(@PathVariable Long doctorId) {
+        try {
+            return scheduleService.getSchedule(doctorId);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error fetching schedule."));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟦 GET: /slots?from=yyyy-MM-dd&to=yyyy-MM-dd (expanded slots per date)
+    // ---------------------------------------------------------------------
+    @GetMapping("/slots")
+    @RequiresRole({"admin", "doctor", "patient"})
+    public ResponseEntity<Map<String, Object>> getSlots(
+            @PathVariable Long doctorId,
+            @RequestParam String from,
+            @RequestParam String to) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Invalid date format, expected yyyy-MM-dd"));
+        }
+        try {
+            return scheduleService.getScheduledSlots(doctorId, fromDate, toDate);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error fetching slots."));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟨 POST / DELETE: /templates
+    //    Body: {"dayOfWeek": "MONDAY", "startTime": "09:00", "endTime": "12:00",
+    //           "slotMinutes": 30, "validFrom": null, "validUntil": null}
+    // ---------------------------------------------------------------------
+    @PostMapping("/templates")
+    @RequiresRole({"admin", "doctor"})
+    public ResponseEntity<Map<String, Object>> addTemplate(
+            @PathVariable Long doctorId,
+            @RequestBody AvailabilityTemplate template,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        try {
+            return scheduleService.addTemplate(doctorId, template, principal);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error saving template."));
+        }
+    }
+
+    @DeleteMapping("/templates/{templateId}")
+    @RequiresRole({"admin", "doctor"})
+    public ResponseEntity<Map<String, Object>> deleteTemplate(
+            @PathVariable Long doctorId,
+            @PathVariable Long templateId,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        try {
+            return scheduleService.deleteTemplate(doctorId, templateId, principal);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error deleting template."));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟥 POST / DELETE: /time-off
+    //    Body: {"date": "2025-12-25", "reason": "Holiday"} for a whole day, or with
+    //          "startTime"/"endTime" to block part of it
+    // ---------------------------------------------------------------------
+    @PostMapping("/time-off")
+    @RequiresRole({"admin", "doctor"})
+    public ResponseEntity<Map<String, Object>> addTimeOff(
+            @PathVariable Long doctorId,
+            @RequestBody TimeOff timeOff,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        try {
+            return scheduleService.addTimeOff(doctorId, timeOff, principal);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error saving time off."));
+        }
+    }
+
+    @DeleteMapping("/time-off/{timeOffId}")
+    @RequiresRole({"admin", "doctor"})
+    public ResponseEntity<Map<String, Object>> deleteTimeOff(
+            @PathVariable Long doctorId,
+            @PathVariable Long timeOffId,
+            @RequestAttribute(AuthPrincipal.REQUEST_ATTRIBUTE) AuthPrincipal principal) {
+        try {
+            return scheduleService.deleteTimeOff(doctorId, timeOffId, principal);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error deleting time off."));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.config.RequiresRole;
+import com.project.back_end.services.AppointmentStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * StatisticsController
+ *
+ * Admin-only appointment statistics, served from the incrementally maintained
+ * (doctor, day, status) counters; no query touches the appointments table.
+ *
+ * Base URL: ${api.path}admin/stats
+ */
+@RestController
+@RequestMapping("${api.path}" + "admin/stats")
+public class StatisticsController {
+
+    private final AppointmentStatistics appointmentStatistics;
+
+    // ✅ Constructor Injection
+    @Autowired
+    public StatisticsController(AppointmentStatistics appointmentStatistics) {
+        this.appointmentStatistics = appointmentStatistics;
+    }
+
+    // ---------------------------------------------------------------------
+    // 🟩 GET: /admin/stats/appointments?from=yyyy-MM-dd&to=yyyy-MM-dd&doctorId=
+    //    from/to default to today; doctorId is optional
+    // ---------------------------------------------------------------------
+    @GetMapping("/appointments")
+    @RequiresRole("admin")
+    public ResponseEntity<Map<String, Object>> getAppointmentStats(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long doctorId) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            toDate = to != null ? LocalDate.parse(to) : fromDate;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Invalid date format, expected yyyy-MM-dd"));
+        }
+        try {
+            return appointmentStatistics.getStats(fromDate, toDate, doctorId);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error fetching appointment statistics"));
+        }
+    }
+}
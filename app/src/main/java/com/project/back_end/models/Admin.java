@@ -2,6 +2,8 @@ package com.project.back_end.models;
 
 // Importing required libraries for JPA (database mapping), validation, and JSON control
 import jakarta.persistence.*;                     // For @Entity, @Id, @GeneratedValue, etc.
+import org.hibernate.annotations.Cache;           // Second-level cache
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotNull;    // For field validation
 import com.fasterxml.jackson.annotation.JsonProperty; // For controlling JSON visibility
 
@@ -13,6 +15,7 @@ import com.fasterxml.jackson.annotation.JsonProperty; // For controlling JSON vi
 
 @Entity // Marks this class as a JPA entity that maps to a database table
 @Table(name = "admins") // Specifies the database table name as 'admins'
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "admin") // Second-level cache (ehcache.xml)
 public class Admin {
 
     /**
@@ -15,7 +15,10 @@ import java.time.LocalTime;
  */
 
 @Entity // Marks this class as a database entity
-@Table(name = "appointments") // Maps this entity to the 'appointments' table in the database
+@Table(name = "appointments", indexes = { // Maps this entity to the 'appointments' table in the database
+        @Index(name = "idx_appointments_patient_time", columnList = "patient_id, appointmentTime"),
+        @Index(name = "idx_appointments_status_time", columnList = "status, appointmentTime") // archival scan
+})
 public class Appointment {
 
     /**
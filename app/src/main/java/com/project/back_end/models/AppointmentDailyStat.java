@@ -0,0 +1,100 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The AppointmentDailyStat class is one counter of the admin statistics rollup: how many
+ * appointments a doctor has on a day in a given status. Rows are only ever changed by
+ * adding deltas (see AppointmentStatistics), never recomputed from 'appointments'.
+ * Cancelled appointments stay counted under status 2 even though their rows are deleted.
+ * This entity maps to the 'appointment_daily_stats' table in the database.
+ */
+
+@Entity
+@IdClass(AppointmentDailyStat.Key.class)
+@Table(name = "appointment_daily_stats", indexes = @Index(name = "idx_appointment_daily_stats_doctor_day", columnList = "doctor_id, day"))
+public class AppointmentDailyStat {
+
+    @Id
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    /** Date of the appointments (not of the booking). */
+    @Id
+    private LocalDate day;
+
+    /** 0 = Scheduled, 1 = Completed, 2 = Cancelled (as in Appointment). */
+    @Id
+    private int status;
+
+    @Column(nullable = false)
+    private long appointments;
+
+    // -------------------- Constructors --------------------
+
+    /** Default constructor — required by JPA. */
+    public AppointmentDailyStat() {}
+
+    // -------------------- Getters --------------------
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getAppointments() {
+        return appointments;
+    }
+
+    // -------------------- Key --------------------
+
+    /** Composite primary key (doctorId, day, status); also the in-memory counter key. */
+    public static class Key implements Serializable {
+
+        private Long doctorId;
+        private LocalDate day;
+        private int status;
+
+        public Key() {}
+
+        public Key(Long doctorId, LocalDate day, int status) {
+            this.doctorId = doctorId;
+            this.day = day;
+            this.status = status;
+        }
+
+        public Long getDoctorId() {
+            return doctorId;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return status == key.status && Objects.equals(doctorId, key.doctorId) && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(doctorId, day, status);
+        }
+    }
+}
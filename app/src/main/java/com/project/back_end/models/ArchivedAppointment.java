@@ -0,0 +1,85 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The ArchivedAppointment class is a completed or cancelled appointment that has been
+ * moved out of the 'appointments' table by the AppointmentArchiveService once it is older
+ * than the archive horizon. Rows keep their original ID and are never modified again.
+ * This entity maps to the 'appointments_archive' table in the database.
+ */
+
+@Entity
+@Table(name = "appointments_archive", indexes = {
+        @Index(name = "idx_appointments_archive_patient_time", columnList = "patient_id, appointmentTime"),
+        @Index(name = "idx_appointments_archive_time", columnList = "appointmentTime")
+})
+public class ArchivedAppointment {
+
+    /** ID the appointment had in the 'appointments' table (not generated). */
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(nullable = false)
+    private LocalDateTime appointmentTime;
+
+    private String reasonForVisit;
+
+    @Column(length = 500)
+    private String notes;
+
+    /** 1 = Completed, 2 = Cancelled (scheduled appointments are never archived). */
+    private int status;
+
+    /** When the row was moved into the archive. */
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // -------------------- Constructors --------------------
+
+    /** Default constructor — required by JPA. */
+    public ArchivedAppointment() {}
+
+    // -------------------- Getters --------------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public String getReasonForVisit() {
+        return reasonForVisit;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * The AvailabilityTemplate class is one recurring weekly block of a doctor's schedule,
+ * e.g. every Monday 09:00–12:00 in 30-minute slots. Templates are expanded into concrete
+ * slots only for the dates a query asks about (see AvailabilityScheduleService).
+ * This entity maps to the 'availability_templates' table in the database.
+ */
+
+@Entity
+@Table(name = "availability_templates", indexes = @Index(name = "idx_availability_templates_doctor", columnList = "doctorId"))
+public class AvailabilityTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Doctor the template belongs to (set from the request path, not the body). */
+    @Column(nullable = false)
+    private Long doctorId;
+
+    @NotNull(message = "Day of week cannot be null")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 9)
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Start time cannot be null")
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    /** Exclusive; a trailing remainder shorter than one slot is not offered. */
+    @NotNull(message = "End time cannot be null")
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    @Min(value = 5, message = "Slots must be at least 5 minutes")
+    @Max(value = 720, message = "Slots must be at most 12 hours")
+    private int slotMinutes = 60;
+
+    /** First date the template applies to (null = no start limit). */
+    private LocalDate validFrom;
+
+    /** Last date the template applies to (null = open-ended). */
+    private LocalDate validUntil;
+
+    // -------------------- Constructors --------------------
+
+    /** Default constructor — required by JPA. */
+    public AvailabilityTemplate() {}
+
+    // -------------------- Helper Methods --------------------
+
+    /** True if the template produces slots on the given date. */
+    @Transient
+    public boolean appliesTo(LocalDate date) {
+        return date.getDayOfWeek() == dayOfWeek
+                && (validFrom == null || !date.isBefore(validFrom))
+                && (validUntil == null || !date.isAfter(validUntil));
+    }
+
+    // -------------------- Getters and Setters --------------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public void setSlotMinutes(int slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+
+    public LocalDate getValidFrom() {
+        return validFrom;
+    }
+
+    public void setValidFrom(LocalDate validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public LocalDate getValidUntil() {
+        return validUntil;
+    }
+
+    public void setValidUntil(LocalDate validUntil) {
+        this.validUntil = validUntil;
+    }
+}
@@ -1,9 +1,19 @@
 package com.project.back_end.models;
 
+import com.project.back_end.services.PrincipalCacheEvictionListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.project.back_end.DTO.Views;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The Doctor class represents healthcare providers in the Clinic Management System.
@@ -13,9 +23,17 @@ import java.util.List;
  */
 
 @Entity // Marks this class as a JPA entity (represents a database table)
+@EntityListeners(PrincipalCacheEvictionListener.class) // Drops cached tokens on update/delete
 @Table(name = "doctors") // Maps this entity to the 'doctors' table in the database
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor") // Second-level cache (ehcache.xml)
+@NamedEntityGraph( // Fetch plan for doctor listings: doctors and their slots in one statement
+        name = Doctor.WITH_AVAILABLE_TIMES,
+        attributeNodes = @NamedAttributeNode("availableTimes"))
 public class Doctor {
 
+    /** Entity graph used by the listing queries in DoctorRepository. */
+    public static final String WITH_AVAILABLE_TIMES = "Doctor.withAvailableTimes";
+
     // 1️⃣ ID FIELD
     /**
      * Unique identifier for each doctor.
@@ -23,6 +41,7 @@ public class Doctor {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonView(Views.Summary.class) // Part of the compact listing (?view=summary)
     private Long id;
 
     // 2️⃣ NAME FIELD
@@ -32,6 +51,7 @@ public class Doctor {
      */
     @NotNull(message = "Name cannot be null")
     @Size(min = 3, max = 100, message = "Name must be between 3 and 100 characters")
+    @JsonView(Views.Summary.class)
     private String name;
 
     // 3️⃣ SPECIALTY FIELD
@@ -41,6 +61,7 @@ public class Doctor {
      */
     @NotNull(message = "Specialty cannot be null")
     @Size(min = 3, max = 50, message = "Specialty must be between 3 and 50 characters")
+    @JsonView(Views.Summary.class)
     private String specialty;
 
     // 4️⃣ YEARS OF EXPERIENCE FIELD
@@ -100,12 +121,26 @@ public class Doctor {
 
     // 🔟 AVAILABLE TIMES FIELD
     /**
-     * List of time slots when the doctor is available.
+     * Time slots when the doctor is available, in start-time order.
      * Example: ["09:00-10:00", "10:00-11:00"]
-     * Stored as a separate collection in the database.
+     * Stored as a separate collection in the database. Mapped as a set so that adding
+     * or removing a slot inserts or deletes just that row (a list would be rewritten whole).
      */
     @ElementCollection
-    private List<String> availableTimes;
+    @OrderBy
+    @BatchSize(size = 50) // Doctors loaded outside the listing graph initialise slots 50 at a time
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor.availableTimes")
+    @JsonView(Views.Summary.class)
+    private Set<String> availableTimes = new LinkedHashSet<>();
+
+    // 1️⃣1️⃣ DEACTIVATED AT FIELD
+    /**
+     * Set when the doctor's deletion starts. From then on the doctor can no longer
+     * log in, be found or be booked, while their appointments are removed in the background.
+     * Null for active doctors.
+     */
+    @JsonIgnore
+    private LocalDateTime deactivatedAt;
 
     // -------------------- Constructors --------------------
 
@@ -124,7 +159,7 @@ public class Doctor {
         this.email = email;
         this.password = password;
         this.phone = phone;
-        this.availableTimes = availableTimes;
+        this.availableTimes = availableTimes != null ? new LinkedHashSet<>(availableTimes) : new LinkedHashSet<>();
     }
 
     // -------------------- Getters and Setters --------------------
@@ -203,16 +238,30 @@ public class Doctor {
     }
 
     /**
-     * Returns the list of time slots when the doctor is available.
+     * Returns the time slots when the doctor is available.
      */
-    public List<String> getAvailableTimes() {
+    public Set<String> getAvailableTimes() {
         return availableTimes;
     }
 
     /**
-     * Sets the list of time slots when the doctor is available.
+     * Sets the time slots when the doctor is available.
      */
-    public void setAvailableTimes(List<String> availableTimes) {
+    public void setAvailableTimes(Set<String> availableTimes) {
         this.availableTimes = availableTimes;
     }
+
+    public LocalDateTime getDeactivatedAt() {
+        return deactivatedAt;
+    }
+
+    public void setDeactivatedAt(LocalDateTime deactivatedAt) {
+        this.deactivatedAt = deactivatedAt;
+    }
+
+    /** True unless the doctor is being deleted. */
+    @JsonIgnore
+    public boolean isActive() {
+        return deactivatedAt == null;
+    }
 }
@@ -0,0 +1,118 @@
+package com.project.back_end.models;
+
+import java.time.Instant;
+
+/**
+ * The OutboxRecord class is embedded in a Prescription document and records the
+ * MySQL side effect of saving it (marking the appointment as prescribed) that is
+ * still to be applied. Because it lives in the same document, the prescription and
+ * its outbox entry are written atomically in one MongoDB insert.
+ *
+ * The PrescriptionOutboxRelay picks up PENDING records, applies them in batches and
+ * marks them DONE, or schedules a retry with backoff until the attempt limit, after
+ * which the record is FAILED.
+ *
+ * The analytics rollups are a second, independent consumer tracked by rolledUp.
+ */
+public class OutboxRecord {
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    /** PENDING, DONE or FAILED. */
+    private String status;
+
+    /** Number of failed relay attempts so far. */
+    private int attempts;
+
+    /** When the record was written; used to measure relay lag. */
+    private Instant createdAt;
+
+    /** Earliest time the relay may (re)try this record. */
+    private Instant nextAttemptAt;
+
+    /** When the side effect was applied. */
+    private Instant processedAt;
+
+    /** Message of the last failure, if any. */
+    private String lastError;
+
+    /** Whether the prescription has been added to the analytics rollups. */
+    private boolean rolledUp;
+
+    // -------------------- Constructors --------------------
+
+    /** Default constructor (required by MongoDB). */
+    public OutboxRecord() {}
+
+    /**
+     * Creates a record that is due immediately.
+     */
+    public static OutboxRecord pending() {
+        OutboxRecord record = new OutboxRecord();
+        Instant now = Instant.now();
+        record.status = PENDING;
+        record.createdAt = now;
+        record.nextAttemptAt = now;
+        return record;
+    }
+
+    // -------------------- Getters and Setters --------------------
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(Instant processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public boolean isRolledUp() {
+        return rolledUp;
+    }
+
+    public void setRolledUp(boolean rolledUp) {
+        this.rolledUp = rolledUp;
+    }
+}
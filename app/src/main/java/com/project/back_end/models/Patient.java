@@ -1,7 +1,8 @@
 package com.project.back_end.models;
 
 // Importing required libraries for database mapping, validation, and JSON control
-import jakarta.persistence.*;                     
+import com.project.back_end.services.PrincipalCacheEvictionListener;
+import jakarta.persistence.*;
 import jakarta.validation.constraints.*;          
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDate; // For dateOfBirth field
@@ -13,6 +14,7 @@ import java.time.LocalDate; // For dateOfBirth field
  */
 
 @Entity // Marks this class as a JPA entity (maps to a table in the database)
+@EntityListeners(PrincipalCacheEvictionListener.class) // Drops cached tokens on update/delete
 @Table(name = "patients") // Defines the table name in the database
 public class Patient {
 
@@ -1,11 +1,15 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
 
+import java.time.LocalDateTime;
+
 /**
  * The Prescription class represents a MongoDB document that stores 
  * details of prescriptions given to patients during appointments.
@@ -37,6 +41,23 @@ public class Prescription {
     @NotNull(message = "Appointment ID cannot be null")
     private Long appointmentId;
 
+    /**
+     * ID of the patient the prescription was issued to.
+     * Resolved from the appointment when the prescription is created.
+     */
+    private Long patientId;
+
+    /**
+     * ID of the doctor who issued the prescription.
+     * Resolved from the appointment when the prescription is created.
+     */
+    private Long doctorId;
+
+    /**
+     * When the prescription was issued. Set by the server on creation.
+     */
+    private LocalDateTime issuedAt;
+
     /**
      * Name of the prescribed medication.
      * Must be between 3 and 100 characters long.
@@ -74,6 +95,19 @@ public class Prescription {
     @Size(max = 100, message = "Pharmacy name cannot exceed 100 characters")
     private String pharmacyName;
 
+    /**
+     * Relevance score, only populated on full-text search results (never stored).
+     */
+    @TextScore
+    private Float score;
+
+    /**
+     * Pending MySQL side effect of this prescription (see OutboxRecord).
+     * Internal bookkeeping, not part of the API.
+     */
+    @JsonIgnore
+    private OutboxRecord outbox;
+
     // -------------------- Constructors --------------------
 
     /** Default constructor (required by Spring and MongoDB). */
@@ -119,6 +153,30 @@ public class Prescription {
         this.appointmentId = appointmentId;
     }
 
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(LocalDateTime issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
     public String getMedication() {
         return medication;
     }
@@ -158,4 +216,20 @@ public class Prescription {
     public void setPharmacyName(String pharmacyName) {
         this.pharmacyName = pharmacyName;
     }
+
+    public OutboxRecord getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(OutboxRecord outbox) {
+        this.outbox = outbox;
+    }
+
+    public Float getScore() {
+        return score;
+    }
+
+    public void setScore(Float score) {
+        this.score = score;
+    }
 }
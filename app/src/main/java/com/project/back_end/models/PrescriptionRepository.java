@@ -4,6 +4,7 @@ import com.project.back_end.models.Prescription;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,4 +23,32 @@ public interface PrescriptionRepository extends MongoRepository<Prescription, St
      * @return a list of Prescription documents linked to that appointment
      */
     List<Prescription> findByAppointmentId(Long appointmentId);
+
+    /**
+     * Find all prescriptions for a set of appointments in a single query.
+     *
+     * @param appointmentIds the appointment IDs
+     * @return the Prescription documents linked to any of them
+     */
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    /**
+     * Same as findByAppointmentIdIn, returning a projection (e.g. PrescriptionSummary)
+     * so that only the projected fields are fetched.
+     *
+     * @param appointmentIds the appointment IDs
+     * @param type           the projection type
+     * @return one projected entry per matching document
+     */
+    <T> List<T> findByAppointmentIdIn(Collection<Long> appointmentIds, Class<T> type);
+
+    /**
+     * Same as findByAppointmentIdIn with a projection, limited to one doctor's prescriptions.
+     *
+     * @param doctorId       the prescribing doctor's ID
+     * @param appointmentIds the appointment IDs
+     * @param type           the projection type
+     * @return one projected entry per matching document
+     */
+    <T> List<T> findByDoctorIdAndAppointmentIdIn(Long doctorId, Collection<Long> appointmentIds, Class<T> type);
 }
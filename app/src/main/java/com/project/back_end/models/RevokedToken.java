@@ -0,0 +1,84 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * The RevokedToken class records a token or user whose tokens must no longer be accepted.
+ * Rows are loaded into the in-memory TokenRevocationList at startup and deleted
+ * once every token they could affect has expired on its own.
+ * This entity maps to the 'revoked_tokens' table in the database.
+ */
+
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * What is revoked: "jti:<token id>" for a single logged-out token,
+     * or "user:<role>:<id>" for every token issued to a user up to revokedAt.
+     */
+    @NotNull
+    @Column(nullable = false, length = 100)
+    private String revocationKey;
+
+    /** When the revocation was issued. */
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    /** After this instant no token affected by the revocation can still be valid. */
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // -------------------- Constructors --------------------
+
+    /** Default constructor — required by JPA. */
+    public RevokedToken() {}
+
+    public RevokedToken(String revocationKey, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.revocationKey = revocationKey;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // -------------------- Getters and Setters --------------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRevocationKey() {
+        return revocationKey;
+    }
+
+    public void setRevocationKey(String revocationKey) {
+        this.revocationKey = revocationKey;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
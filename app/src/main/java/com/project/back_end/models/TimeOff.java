@@ -0,0 +1,110 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * The TimeOff class is an exception to a doctor's weekly templates on one date:
+ * a holiday or leave day (no times) or a few blocked hours (start and end time).
+ * Template slots overlapping it are not offered on that date.
+ * This entity maps to the 'time_off' table in the database.
+ */
+
+@Entity
+@Table(name = "time_off", indexes = @Index(name = "idx_time_off_doctor_date", columnList = "doctorId, date"))
+public class TimeOff {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Doctor the time off belongs to (set from the request path, not the body). */
+    @Column(nullable = false)
+    private Long doctorId;
+
+    @NotNull(message = "Date cannot be null")
+    @Column(nullable = false)
+    private LocalDate date;
+
+    /** Start of the blocked period; null together with endTime for the whole day. */
+    private LocalTime startTime;
+
+    /** End of the blocked period (exclusive). */
+    private LocalTime endTime;
+
+    /** Optional note, e.g. "Public holiday" or "Conference". */
+    @Size(max = 100, message = "Reason must be at most 100 characters")
+    private String reason;
+
+    // -------------------- Constructors --------------------
+
+    /** Default constructor — required by JPA. */
+    public TimeOff() {}
+
+    // -------------------- Helper Methods --------------------
+
+    /** True if no times are given, i.e. the doctor is away all day. */
+    @Transient
+    public boolean isWholeDay() {
+        return startTime == null && endTime == null;
+    }
+
+    /** True if the slot [slotStart, slotEnd) overlaps this time off. */
+    @Transient
+    public boolean blocks(LocalTime slotStart, LocalTime slotEnd) {
+        return isWholeDay() || (slotStart.isBefore(endTime) && slotEnd.isAfter(startTime));
+    }
+
+    // -------------------- Getters and Setters --------------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
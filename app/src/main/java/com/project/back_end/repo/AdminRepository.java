@@ -1,7 +1,13 @@
 package com.project.back_end.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.project.back_end.models.Admin;
 
 /**
@@ -19,6 +25,16 @@ public interface AdminRepository extends JpaRepository<Admin, Long> {
      *
      * @param username the username of the admin
      * @return the Admin entity matching the given username, or null if not found
+     * (cached in the query cache; any write to 'admins' invalidates it)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Admin findByUsername(String username);
+
+    /**
+     * Replace the stored password hash (used to upgrade legacy rows on login).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Admin x SET x.password = :password WHERE x.id = :id")
+    int updatePassword(Long id, String password);
 }
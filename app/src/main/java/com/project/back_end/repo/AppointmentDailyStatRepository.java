@@ -0,0 +1,73 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.AppointmentDailyStat;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AppointmentDailyStatRepository
+ *
+ * Handles database operations for the (doctor, day, status) appointment counters
+ * behind the admin statistics.
+ */
+@Repository
+public interface AppointmentDailyStatRepository extends JpaRepository<AppointmentDailyStat, AppointmentDailyStat.Key> {
+
+    /**
+     * Add a delta to one counter, creating it if needed (MySQL upsert).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_daily_stats"))
+    @Query(value = "INSERT INTO appointment_daily_stats (doctor_id, day, status, appointments) " +
+                   "VALUES (:doctorId, :day, :status, :delta) " +
+                   "ON DUPLICATE KEY UPDATE appointments = appointments + :delta",
+           nativeQuery = true)
+    int addDelta(Long doctorId, LocalDate day, int status, long delta);
+
+    /**
+     * Counters of all doctors between two days (inclusive); a primary-key range scan.
+     */
+    @Query("SELECT s FROM AppointmentDailyStat s WHERE s.day BETWEEN :from AND :to")
+    List<AppointmentDailyStat> findByDayBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Counters of one doctor between two days (inclusive).
+     */
+    @Query("SELECT s FROM AppointmentDailyStat s WHERE s.doctorId = :doctorId AND s.day BETWEEN :from AND :to")
+    List<AppointmentDailyStat> findByDoctorIdAndDayBetween(Long doctorId, LocalDate from, LocalDate to);
+
+    /**
+     * Seed the counters from the live and archived appointments. Meant for an empty table;
+     * existing counters are left untouched (INSERT IGNORE), so concurrent runs are harmless.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_daily_stats"))
+    @Query(value = "INSERT IGNORE INTO appointment_daily_stats (doctor_id, day, status, appointments) " +
+                   "SELECT doctor_id, day, status, SUM(n) FROM (" +
+                   "  SELECT doctor_id, DATE(appointment_time) AS day, status, COUNT(*) AS n FROM appointments " +
+                   "  GROUP BY doctor_id, DATE(appointment_time), status " +
+                   "  UNION ALL " +
+                   "  SELECT doctor_id, DATE(appointment_time) AS day, status, COUNT(*) AS n FROM appointments_archive " +
+                   "  GROUP BY doctor_id, DATE(appointment_time), status" +
+                   ") t GROUP BY doctor_id, day, status",
+           nativeQuery = true)
+    int seedFromAppointments();
+
+    /**
+     * Delete all counters of a doctor in one statement.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AppointmentDailyStat s WHERE s.doctorId = :doctorId")
+    int deleteAllByDoctorId(Long doctorId);
+}
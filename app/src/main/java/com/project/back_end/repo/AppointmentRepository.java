@@ -1,14 +1,22 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.DTO.AppointmentStatusRef;
 import com.project.back_end.models.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * AppointmentRepository
@@ -28,6 +36,27 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
            "WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end")
     List<Appointment> findByDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Patient and doctor IDs of an appointment, without loading any entity.
+     */
+    @Query("SELECT a.id AS id, a.patient.id AS patientId, a.doctor.id AS doctorId, " +
+           "a.appointmentTime AS appointmentTime FROM Appointment a WHERE a.id = :id")
+    AppointmentRef findRefById(Long id);
+
+    /**
+     * Patient and doctor IDs for a batch of appointments, without loading any entity.
+     */
+    @Query("SELECT a.id AS id, a.patient.id AS patientId, a.doctor.id AS doctorId, " +
+           "a.appointmentTime AS appointmentTime FROM Appointment a WHERE a.id IN :ids")
+    List<AppointmentRef> findRefsByIdIn(Collection<Long> ids);
+
+    /**
+     * IDs of a doctor's appointments within a time range (no entity loading).
+     */
+    @Query("SELECT a.id FROM Appointment a " +
+           "WHERE a.doctor.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end")
+    List<Long> findIdsByDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+
     /**
      * Filter appointments by doctor ID, partial patient name (case-insensitive), and time range.
      * Includes doctor and patient details using LEFT JOIN FETCH.
@@ -42,17 +71,96 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             Long doctorId, String patientName, LocalDateTime start, LocalDateTime end);
 
     /**
-     * Delete all appointments associated with a specific doctor.
+     * Delete up to {@code limit} appointments of a doctor in one set-based statement
+     * (MySQL DELETE ... LIMIT), in its own short transaction. Call repeatedly until it
+     * returns less than the limit.
+     *
+     * @return number of rows deleted
      */
     @Modifying
     @Transactional
-    void deleteAllByDoctorId(Long doctorId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments"))
+    @Query(value = "DELETE FROM appointments WHERE doctor_id = :doctorId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByDoctorId(Long doctorId, int limit);
+
+    /**
+     * Doctor, time and status of the appointments markPrescribed() would change, with the
+     * rows locked (SELECT ... FOR UPDATE) until the caller's transaction ends, so the
+     * statistics recorded for the change match the rows actually updated. Like
+     * markPrescribed(), only scheduled rows (status 0) are selected.
+     */
+    @Query(value = "SELECT doctor_id AS doctorId, appointment_time AS appointmentTime, status AS status " +
+                   "FROM appointments WHERE id IN :ids AND status = 0 FOR UPDATE",
+           nativeQuery = true)
+    List<AppointmentStatusRef> lockUnprescribed(Collection<Long> ids);
+
+    /**
+     * (doctor ID, appointment time) of every scheduled or completed appointment in [from, to),
+     * streamed row by row (a MySQL streaming result set) without loading any entity.
+     * Must be consumed and closed inside a transaction, before the next query.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.doctor.id, a.appointmentTime FROM Appointment a " +
+           "WHERE a.status IN (0, 1) AND a.appointmentTime >= :from AND a.appointmentTime < :to")
+    Stream<Object[]> streamBookedTimes(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Mark a batch of scheduled appointments as prescribed (status 1) in one statement.
+     * Idempotent: only scheduled rows (status 0) change, so completed ones are left
+     * untouched and cancelled ones (status 2) are never revived.
+     *
+     * @return number of rows changed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = 1 WHERE a.id IN :ids AND a.status = 0")
+    int markPrescribed(Collection<Long> ids);
+
+    /**
+     * IDs of completed or cancelled appointments older than the cutoff, oldest IDs first.
+     * Pass a Pageable to read one archival chunk at a time.
+     */
+    @Query("SELECT a.id FROM Appointment a " +
+           "WHERE a.status IN (1, 2) AND a.appointmentTime < :cutoff ORDER BY a.id")
+    List<Long> findArchivableIds(LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Delete a batch of appointments by ID in one statement (used after archiving them).
+     */
+    @Modifying
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
 
     /**
      * Find all appointments for a specific patient.
      */
     List<Appointment> findByPatientId(Long patientId);
 
+    /**
+     * True if the doctor has any appointment with the patient.
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.doctor.id = :doctorId AND a.patient.id = :patientId")
+    boolean existsByDoctorIdAndPatientId(Long doctorId, Long patientId);
+
+    /**
+     * IDs of all appointments for a specific patient (no entity loading).
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.patient.id = :patientId")
+    List<Long> findIdsByPatientId(Long patientId);
+
+    /**
+     * Appointments of a patient within [from, to), with doctor and patient loaded.
+     */
+    @Query("SELECT a FROM Appointment a " +
+           "JOIN FETCH a.doctor " +
+           "JOIN FETCH a.patient p " +
+           "WHERE p.id = :patientId AND a.appointmentTime >= :from AND a.appointmentTime < :to " +
+           "ORDER BY a.appointmentTime")
+    List<Appointment> findByPatientIdInRange(Long patientId, LocalDateTime from, LocalDateTime to);
+
     /**
      * Retrieve appointments for a patient by status, ordered by appointment time ascending.
      */
@@ -0,0 +1,92 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.ArchivedAppointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ArchivedAppointmentRepository
+ *
+ * Handles database operations for the appointments archive table.
+ */
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    /**
+     * Copy a batch of appointments into the archive with one INSERT ... SELECT.
+     * Must run in the same transaction as the matching delete from 'appointments'.
+     *
+     * @return number of rows copied
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments_archive"))
+    @Query(value = "INSERT INTO appointments_archive " +
+                   "(id, doctor_id, patient_id, appointment_time, reason_for_visit, notes, status, archived_at) " +
+                   "SELECT id, doctor_id, patient_id, appointment_time, reason_for_visit, notes, status, :archivedAt " +
+                   "FROM appointments WHERE id IN :ids",
+           nativeQuery = true)
+    int copyFromAppointments(Collection<Long> ids, LocalDateTime archivedAt);
+
+    /**
+     * Archived appointments of a patient within [from, to), with doctor and patient loaded.
+     */
+    @Query("SELECT a FROM ArchivedAppointment a " +
+           "JOIN FETCH a.doctor " +
+           "JOIN FETCH a.patient p " +
+           "WHERE p.id = :patientId AND a.appointmentTime >= :from AND a.appointmentTime < :to " +
+           "ORDER BY a.appointmentTime")
+    List<ArchivedAppointment> findByPatientIdInRange(Long patientId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * True if the doctor has any archived appointment with the patient.
+     */
+    @Query("SELECT COUNT(a) > 0 FROM ArchivedAppointment a WHERE a.doctor.id = :doctorId AND a.patient.id = :patientId")
+    boolean existsByDoctorIdAndPatientId(Long doctorId, Long patientId);
+
+    /**
+     * IDs of all archived appointments of a patient (no entity loading).
+     */
+    @Query("SELECT a.id FROM ArchivedAppointment a WHERE a.patient.id = :patientId")
+    List<Long> findIdsByPatientId(Long patientId);
+
+    /**
+     * (doctor ID, appointment time) of every completed archived appointment in [from, to),
+     * streamed row by row like AppointmentRepository.streamBookedTimes().
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.doctor.id, a.appointmentTime FROM ArchivedAppointment a " +
+           "WHERE a.status = 1 AND a.appointmentTime >= :from AND a.appointmentTime < :to")
+    Stream<Object[]> streamBookedTimes(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Appointment time of the newest archived row (null if the archive is empty).
+     */
+    @Query("SELECT MAX(a.appointmentTime) FROM ArchivedAppointment a")
+    LocalDateTime findLatestAppointmentTime();
+
+    /**
+     * Delete up to {@code limit} archived appointments of a doctor in one statement,
+     * in its own short transaction.
+     *
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments_archive"))
+    @Query(value = "DELETE FROM appointments_archive WHERE doctor_id = :doctorId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByDoctorId(Long doctorId, int limit);
+}
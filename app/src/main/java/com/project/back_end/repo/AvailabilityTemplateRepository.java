@@ -0,0 +1,40 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.AvailabilityTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AvailabilityTemplateRepository
+ *
+ * Handles database operations for doctors' recurring weekly availability templates.
+ */
+@Repository
+public interface AvailabilityTemplateRepository extends JpaRepository<AvailabilityTemplate, Long> {
+
+    /**
+     * All templates of a doctor, in weekday and start-time order.
+     */
+    List<AvailabilityTemplate> findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(Long doctorId);
+
+    /**
+     * Templates of all doctors that may apply to some date between two dates (inclusive).
+     */
+    @Query("SELECT t FROM AvailabilityTemplate t " +
+           "WHERE (t.validFrom IS NULL OR t.validFrom <= :to) AND (t.validUntil IS NULL OR t.validUntil >= :from)")
+    List<AvailabilityTemplate> findApplicableBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Delete all templates of a doctor in one statement.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AvailabilityTemplate t WHERE t.doctorId = :doctorId")
+    int deleteAllByDoctorId(Long doctorId);
+}
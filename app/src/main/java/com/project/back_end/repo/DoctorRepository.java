@@ -1,9 +1,15 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 /**
@@ -11,6 +17,8 @@ import java.util.List;
  *
  * Provides CRUD and custom query methods for the Doctor entity.
  * Supports search operations by email, name, and specialty.
+ * Listing queries load availableTimes in the same statement (Doctor.WITH_AVAILABLE_TIMES),
+ * so serialising or filtering a list of doctors issues no further queries.
  */
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
@@ -20,7 +28,9 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      *
      * @param email Doctor’s email address
      * @return Doctor object if found, otherwise null
+     * (cached in the query cache; any write to 'doctors' invalidates it)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Doctor findByEmail(String email);
 
     /**
@@ -28,9 +38,10 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      * Uses LIKE and CONCAT for flexible pattern matching.
      *
      * @param name Partial name to search
-     * @return List of doctors matching the name pattern
+     * @return List of active doctors matching the name pattern
      */
-    @Query("SELECT d FROM Doctor d WHERE d.name LIKE CONCAT('%', :name, '%')")
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
+    @Query("SELECT d FROM Doctor d WHERE d.name LIKE CONCAT('%', :name, '%') AND d.deactivatedAt IS NULL")
     List<Doctor> findByNameLike(String name);
 
     /**
@@ -39,18 +50,57 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      *
      * @param name Doctor’s name (partial)
      * @param specialty Doctor’s specialty (exact, but case-insensitive)
-     * @return List of doctors matching both filters
+     * @return List of active doctors matching both filters
      */
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
     @Query("SELECT d FROM Doctor d " +
            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
-           "AND LOWER(d.specialty) = LOWER(:specialty)")
+           "AND LOWER(d.specialty) = LOWER(:specialty) " +
+           "AND d.deactivatedAt IS NULL")
     List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
 
     /**
      * Find doctors by specialty, ignoring case sensitivity.
      *
      * @param specialty Doctor’s specialty
-     * @return List of doctors in that specialty
+     * @return List of active doctors in that specialty
      */
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
+    @Query("SELECT d FROM Doctor d WHERE LOWER(d.specialty) = LOWER(:specialty) AND d.deactivatedAt IS NULL")
     List<Doctor> findBySpecialtyIgnoreCase(String specialty);
+
+    /**
+     * All doctors that can be booked (excludes doctors whose deletion is in progress).
+     *
+     * @return List of active doctors
+     */
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
+    @Query("SELECT d FROM Doctor d WHERE d.deactivatedAt IS NULL")
+    List<Doctor> findAllActive();
+
+    /**
+     * ID, name and specialty of every active doctor, as plain rows (no entity loading).
+     */
+    @Query("SELECT d.id, d.name, d.specialty FROM Doctor d WHERE d.deactivatedAt IS NULL ORDER BY d.id")
+    List<Object[]> findActiveSummaries();
+
+    /**
+     * (doctor ID, slot) pairs of every active doctor's availableTimes, as plain rows.
+     */
+    @Query("SELECT d.id, t FROM Doctor d JOIN d.availableTimes t WHERE d.deactivatedAt IS NULL")
+    List<Object[]> findActiveAvailableTimes();
+
+    /**
+     * IDs of doctors whose deletion was started but not finished (e.g. interrupted by a restart).
+     */
+    @Query("SELECT d.id FROM Doctor d WHERE d.deactivatedAt IS NOT NULL")
+    List<Long> findDeactivatedIds();
+
+    /**
+     * Replace the stored password hash (used to upgrade legacy rows on login).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Doctor x SET x.password = :password WHERE x.id = :id")
+    int updatePassword(Long id, String password);
 }
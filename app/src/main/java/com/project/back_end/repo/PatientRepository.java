@@ -2,7 +2,12 @@ package com.project.back_end.repo;
 
 import com.project.back_end.models.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 /**
  * PatientRepository
@@ -29,4 +34,19 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
      * @return Patient object if found, otherwise null
      */
     Patient findByEmailOrPhone(String email, String phone);
+
+    /**
+     * Find a patient by ID with a query rather than EntityManager.find(), so the
+     * transaction's query timeout applies (used by the patient dashboard).
+     */
+    @Query("SELECT p FROM Patient p WHERE p.id = :id")
+    Optional<Patient> findDetailsById(Long id);
+
+    /**
+     * Replace the stored password hash (used to upgrade legacy rows on login).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Patient x SET x.password = :password WHERE x.id = :id")
+    int updatePassword(Long id, String password);
 }
@@ -0,0 +1,35 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Prescription;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * ReactivePrescriptionRepository
+ *
+ * Non-blocking counterpart of PrescriptionRepository, backed by the MongoDB reactive
+ * driver. Results are streamed from the cursor as they are requested, so callers can
+ * apply backpressure instead of loading every document up front.
+ */
+@Repository
+public interface ReactivePrescriptionRepository extends ReactiveMongoRepository<Prescription, String> {
+
+    /**
+     * Stream all prescriptions associated with a specific appointment ID.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return a Flux of Prescription documents linked to that appointment
+     */
+    Flux<Prescription> findByAppointmentId(Long appointmentId);
+
+    /**
+     * Stream all prescriptions for a set of appointments.
+     *
+     * @param appointmentIds the appointment IDs
+     * @return a Flux of the Prescription documents linked to any of them
+     */
+    Flux<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.TimeOff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * TimeOffRepository
+ *
+ * Handles database operations for doctors' holidays, leave and blocked hours.
+ */
+@Repository
+public interface TimeOffRepository extends JpaRepository<TimeOff, Long> {
+
+    /**
+     * Time off of a doctor between two dates (inclusive), ordered by date.
+     */
+    List<TimeOff> findByDoctorIdAndDateBetweenOrderByDateAsc(Long doctorId, LocalDate from, LocalDate to);
+
+    /**
+     * Time off of all doctors between two dates (inclusive).
+     */
+    List<TimeOff> findByDateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Delete all time off of a doctor in one statement.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimeOff t WHERE t.doctorId = :doctorId")
+    int deleteAllByDoctorId(Long doctorId);
+}
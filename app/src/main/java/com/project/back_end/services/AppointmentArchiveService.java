@@ -0,0 +1,163 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * AppointmentArchiveService
+ *
+ * Keeps the 'appointments' table small by moving completed and cancelled appointments
+ * older than the archive horizon into 'appointments_archive'. Each chunk is copied with
+ * one INSERT ... SELECT and deleted in the same transaction, so a row is always in exactly
+ * one of the two tables. The job pauses between chunks and stops after a bounded number
+ * of chunks per run, so it never holds locks or saturates the database for long.
+ *
+ * Patient history reads go through findPatientAppointments(), which only queries the
+ * archive when the requested range starts before the newest archived appointment could be.
+ */
+@Service
+public class AppointmentArchiveService {
+
+    // Open-ended ranges are clamped to these (both fit a MySQL DATETIME)
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long chunkPauseMs;
+    private final Counter archived;
+
+    // Every archived row has appointmentTime < this (null until loaded: query the archive)
+    private volatile LocalDateTime archivedBefore;
+
+    @Autowired
+    public AppointmentArchiveService(AppointmentRepository appointmentRepository,
+                                     ArchivedAppointmentRepository archivedAppointmentRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.archive.horizon-days:365}") long horizonDays,
+                                     @Value("${app.archive.chunk-size:500}") int chunkSize,
+                                     @Value("${app.archive.max-chunks-per-run:200}") int maxChunksPerRun,
+                                     @Value("${app.archive.chunk-pause-ms:200}") long chunkPauseMs,
+                                     MeterRegistry registry) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = Duration.ofDays(horizonDays);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.chunkPauseMs = chunkPauseMs;
+        this.archived = Counter.builder("appointments.archived")
+                .description("Appointments moved into the archive table")
+                .register(registry);
+    }
+
+    // ---------------------------------------------------------------------
+    // Archival job
+    // ---------------------------------------------------------------------
+
+    /**
+     * Moves appointments past the horizon into the archive, one chunk per transaction.
+     * Rows left over when the per-run limit is reached are picked up by the next run.
+     */
+    @Scheduled(cron = "${app.archive.cron:0 0 2 * * *}")
+    public synchronized void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        try {
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                List<Long> ids = appointmentRepository.findArchivableIds(cutoff, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) break;
+
+                Integer moved = transactionTemplate.execute(status -> {
+                    int copied = archivedAppointmentRepository.copyFromAppointments(ids, LocalDateTime.now());
+                    appointmentRepository.deleteAllByIdIn(ids);
+                    return copied;
+                });
+                archived.increment(moved == null ? 0 : moved);
+
+                if (ids.size() < chunkSize) break;
+                Thread.sleep(chunkPauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads the newest archived appointment time, so reads after a restart (or after the
+     * horizon was lengthened) still know how far back the archive reaches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadArchiveBound() {
+        try {
+            LocalDateTime latest = archivedAppointmentRepository.findLatestAppointmentTime();
+            archivedBefore = latest == null ? EARLIEST : latest.plusSeconds(1);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    /**
+     * Appointments of a patient within [from, to), oldest first, from the live table and,
+     * only if the range reaches into it, the archive. Null bounds mean open-ended.
+     */
+    public List<AppointmentDTO> findPatientAppointments(Long patientId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from != null ? from : EARLIEST;
+        LocalDateTime end = to != null ? to : LATEST;
+
+        List<AppointmentDTO> appointments = appointmentRepository.findByPatientIdInRange(patientId, start, end)
+                .stream()
+                .map(AppointmentDTO::new)
+                .collect(Collectors.toList());
+
+        if (reachesArchive(start)) {
+            List<AppointmentDTO> merged = new ArrayList<>(appointments);
+            archivedAppointmentRepository.findByPatientIdInRange(patientId, start, end)
+                    .forEach(a -> merged.add(new AppointmentDTO(a)));
+            merged.sort(Comparator.comparing(AppointmentDTO::getAppointmentTime));
+            return merged;
+        }
+        return appointments;
+    }
+
+    /**
+     * True if the archive may hold appointments at or after the given time. Anything this
+     * job archives is older than now minus the horizon; rows archived under an earlier,
+     * shorter horizon are covered by the bound loaded at startup.
+     */
+    private boolean reachesArchive(LocalDateTime from) {
+        LocalDateTime loaded = archivedBefore;
+        if (loaded == null) return true;
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        LocalDateTime bound = loaded.isAfter(cutoff) ? loaded : cutoff;
+        return from.isBefore(bound);
+    }
+}
@@ -1,10 +1,9 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AuthPrincipal;
 import com.project.back_end.models.Appointment;
-import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
-import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,18 +19,15 @@ public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
-    private final DoctorRepository doctorRepository;
-    private final TokenService tokenService;
+    private final AppointmentStatistics statistics;
 
     @Autowired
     public AppointmentService(AppointmentRepository appointmentRepository,
                               PatientRepository patientRepository,
-                              DoctorRepository doctorRepository,
-                              TokenService tokenService) {
+                              AppointmentStatistics statistics) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
-        this.doctorRepository = doctorRepository;
-        this.tokenService = tokenService;
+        this.statistics = statistics;
     }
 
     /**
@@ -42,7 +38,8 @@ public class AppointmentService {
     @Transactional
     public int bookAppointment(Appointment appointment) {
         try {
-            appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            statistics.booked(doctorId(saved), saved.getAppointmentTime(), saved.getStatus());
             return 1;
         } catch (Exception e) {
             return 0;
@@ -66,6 +63,10 @@ public class AppointmentService {
 
         // Optional: Add validation logic (e.g., doctor availability)
         Appointment existingAppointment = existing.get();
+        Long oldDoctorId = doctorId(existingAppointment);
+        LocalDateTime oldTime = existingAppointment.getAppointmentTime();
+        int oldStatus = existingAppointment.getStatus();
+
         existingAppointment.setAppointmentTime(appointment.getAppointmentTime());
         existingAppointment.setStatus(appointment.getStatus());
         existingAppointment.setDescription(appointment.getDescription());
@@ -73,6 +74,8 @@ public class AppointmentService {
         existingAppointment.setPatientId(appointment.getPatientId());
 
         appointmentRepository.save(existingAppointment);
+        statistics.moved(oldDoctorId, oldTime, oldStatus,
+                doctorId(existingAppointment), existingAppointment.getAppointmentTime(), existingAppointment.getStatus());
 
         response.put("message", "Appointment updated successfully!");
         return ResponseEntity.ok(response);
@@ -81,11 +84,11 @@ public class AppointmentService {
     /**
      * Cancel an existing appointment.
      * @param id ID of appointment to cancel
-     * @param token Authorization token to verify the patient
+     * @param principal Authenticated patient making the request
      * @return ResponseEntity with message
      */
     @Transactional
-    public ResponseEntity<Map<String, String>> cancelAppointment(long id, String token) {
+    public ResponseEntity<Map<String, String>> cancelAppointment(long id, AuthPrincipal principal) {
         Map<String, String> response = new HashMap<>();
 
         Optional<Appointment> appointment = appointmentRepository.findById(id);
@@ -95,14 +98,16 @@ public class AppointmentService {
         }
 
         // Verify that the token corresponds to the same patient
-        String email = tokenService.extractEmail(token);
-        Patient patient = patientRepository.findByEmail(email);
-        if (patient == null || patient.getId() != appointment.get().getPatientId()) {
+        if (!Objects.equals(principal.getId(), appointment.get().getPatient().getId())) {
             response.put("message", "Unauthorized cancellation attempt!");
             return ResponseEntity.status(403).body(response);
         }
 
-        appointmentRepository.delete(appointment.get());
+        Appointment cancelled = appointment.get();
+        appointmentRepository.delete(cancelled);
+        // The row is gone, but the cancellation stays counted
+        statistics.moved(doctorId(cancelled), cancelled.getAppointmentTime(), cancelled.getStatus(),
+                doctorId(cancelled), cancelled.getAppointmentTime(), AppointmentStatistics.CANCELLED);
         response.put("message", "Appointment cancelled successfully!");
         return ResponseEntity.ok(response);
     }
@@ -111,25 +116,17 @@ public class AppointmentService {
      * Retrieve list of appointments for a doctor on a specific date, optionally filtered by patient name.
      * @param pname Patient name to filter by
      * @param date Appointment date
-     * @param token Authorization token
+     * @param principal Authenticated doctor making the request
      * @return Map containing appointments list
      */
-    public Map<String, Object> getAppointment(String pname, LocalDate date, String token) {
+    public Map<String, Object> getAppointment(String pname, LocalDate date, AuthPrincipal principal) {
         Map<String, Object> result = new HashMap<>();
 
-        String email = tokenService.extractEmail(token);
-        Doctor doctor = doctorRepository.findByEmail(email);
-
-        if (doctor == null) {
-            result.put("message", "Doctor not found!");
-            return result;
-        }
-
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
 
         List<Appointment> appointments = appointmentRepository
-                .findByDoctorIdAndAppointmentTimeBetween(doctor.getId(), startOfDay, endOfDay);
+                .findByDoctorIdAndAppointmentTimeBetween(principal.getId(), startOfDay, endOfDay);
 
         if (pname != null && !pname.isEmpty()) {
             appointments = appointments.stream()
@@ -145,14 +142,20 @@ public class AppointmentService {
     }
 
     /**
-     * Change the status of an appointment.
+     * Change the status of an appointment (e.g. a doctor marking it completed).
+     * Doctors may only change their own appointments; cancelled appointments stay cancelled.
      * @param id Appointment ID
-     * @param status New status string
+     * @param status New status (0 = Scheduled, 1 = Completed, 2 = Cancelled)
+     * @param principal Authenticated doctor or admin making the request
      * @return ResponseEntity with message
      */
     @Transactional
-    public ResponseEntity<Map<String, String>> changeStatus(long id, String status) {
+    public ResponseEntity<Map<String, String>> changeStatus(long id, int status, AuthPrincipal principal) {
         Map<String, String> response = new HashMap<>();
+        if (status < AppointmentStatistics.SCHEDULED || status > AppointmentStatistics.CANCELLED) {
+            response.put("message", "Status must be 0 (scheduled), 1 (completed) or 2 (cancelled)");
+            return ResponseEntity.badRequest().body(response);
+        }
 
         Optional<Appointment> appointment = appointmentRepository.findById(id);
         if (appointment.isEmpty()) {
@@ -161,10 +164,28 @@ public class AppointmentService {
         }
 
         Appointment existingAppointment = appointment.get();
+        if ("doctor".equals(principal.getRole())
+                && !Objects.equals(principal.getId(), doctorId(existingAppointment))) {
+            response.put("message", "Unauthorized status change attempt!");
+            return ResponseEntity.status(403).body(response);
+        }
+
+        int oldStatus = existingAppointment.getStatus();
+        if (oldStatus == AppointmentStatistics.CANCELLED && status != oldStatus) {
+            response.put("message", "Cancelled appointments cannot be changed");
+            return ResponseEntity.status(409).body(response);
+        }
+
         existingAppointment.setStatus(status);
         appointmentRepository.save(existingAppointment);
+        statistics.moved(doctorId(existingAppointment), existingAppointment.getAppointmentTime(), oldStatus,
+                doctorId(existingAppointment), existingAppointment.getAppointmentTime(), status);
 
         response.put("message", "Appointment status updated successfully!");
         return ResponseEntity.ok(response);
     }
+
+    private static Long doctorId(Appointment appointment) {
+        return appointment.getDoctor() != null ? appointment.getDoctor().getId() : null;
+    }
 }
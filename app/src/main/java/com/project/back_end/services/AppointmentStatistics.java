@@ -0,0 +1,240 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.AppointmentDailyStat;
+import com.project.back_end.repo.AppointmentDailyStatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AppointmentStatistics
+ *
+ * Appointment counters per (doctor, day, status) for the admin dashboard, maintained
+ * incrementally instead of aggregating the 'appointments' table on every load.
+ *
+ * Booking, cancelling and status changes record +1/-1 deltas once their transaction
+ * commits. Deltas are merged into a ConcurrentHashMap (merge() is atomic per key) and a
+ * scheduled job drains the map, removing each key atomically, into the
+ * 'appointment_daily_stats' rollup table with one upsert per changed counter. A failed
+ * flush merges its deltas back for the next run.
+ *
+ * Reads scan only the requested rows of the rollup table (plus this instance's unflushed
+ * deltas), so they cost O(result) regardless of how many appointments exist.
+ */
+@Component
+public class AppointmentStatistics {
+
+    public static final int SCHEDULED = 0;
+    public static final int COMPLETED = 1;
+    public static final int CANCELLED = 2;
+
+    private final AppointmentDailyStatRepository statRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRangeDays;
+    private final Counter flushed;
+
+    // Unflushed deltas
+    private final Map<AppointmentDailyStat.Key, Long> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AppointmentStatistics(AppointmentDailyStatRepository statRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.stats.max-range-days:92}") int maxRangeDays,
+                                 MeterRegistry registry) {
+        this.statRepository = statRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRangeDays = maxRangeDays;
+        this.flushed = Counter.builder("stats.appointments.flushed")
+                .description("Appointment counter deltas written to the rollup table")
+                .register(registry);
+        registry.gauge("stats.appointments.pending", pending, Map::size);
+    }
+
+    // ---------------------------------------------------------------------
+    // Recording
+    // ---------------------------------------------------------------------
+
+    /**
+     * Counts a new appointment.
+     */
+    public void booked(Long doctorId, LocalDateTime time, int status) {
+        afterCommit(() -> add(doctorId, time, status, 1));
+    }
+
+    /**
+     * Moves an appointment from one counter to another (status change, reschedule or
+     * cancellation). Nothing is recorded if the counter stays the same.
+     */
+    public void moved(Long fromDoctorId, LocalDateTime fromTime, int fromStatus,
+                      Long toDoctorId, LocalDateTime toTime, int toStatus) {
+        if (Objects.equals(fromDoctorId, toDoctorId) && fromStatus == toStatus
+                && Objects.equals(day(fromTime), day(toTime))) {
+            return;
+        }
+        afterCommit(() -> {
+            add(fromDoctorId, fromTime, fromStatus, -1);
+            add(toDoctorId, toTime, toStatus, 1);
+        });
+    }
+
+    private void add(Long doctorId, LocalDateTime time, int status, long delta) {
+        if (doctorId == null || time == null) return;
+        pending.merge(new AppointmentDailyStat.Key(doctorId, time.toLocalDate(), status), delta, Long::sum);
+    }
+
+    // Deltas of rolled back transactions are never recorded
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static LocalDate day(LocalDateTime time) {
+        return time == null ? null : time.toLocalDate();
+    }
+
+    // ---------------------------------------------------------------------
+    // Flushing
+    // ---------------------------------------------------------------------
+
+    /**
+     * Writes pending deltas to the rollup table in one transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<AppointmentDailyStat.Key, Long> batch = new HashMap<>();
+        for (AppointmentDailyStat.Key key : pending.keySet()) {
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) batch.put(key, delta);
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach((key, delta) ->
+                    statRepository.addDelta(key.getDoctorId(), key.getDay(), key.getStatus(), delta)));
+            flushed.increment(batch.size());
+        } catch (Exception e) {
+            e.printStackTrace();
+            batch.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Seeds the rollup table from existing appointments the first time the application
+     * starts with it empty. Appointments cancelled before then were deleted and cannot be
+     * counted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        try {
+            if (statRepository.count() == 0) {
+                statRepository.seedFromAppointments();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Drops a deleted doctor's counters (pending and stored).
+     */
+    public synchronized void deleteDoctor(Long doctorId) {
+        pending.keySet().removeIf(key -> key.getDoctorId().equals(doctorId));
+        statRepository.deleteAllByDoctorId(doctorId);
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    /**
+     * Appointment counts per doctor and day between two days (inclusive), for all doctors
+     * or one, with totals and the cancellation rate over the whole range.
+     */
+    public ResponseEntity<Map<String, Object>> getStats(LocalDate from, LocalDate to, Long doctorId) {
+        Map<String, Object> response = new HashMap<>();
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            response.put("message", "Range must be ascending and at most " + maxRangeDays + " days");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        List<AppointmentDailyStat> rows = doctorId == null
+                ? statRepository.findByDayBetween(from, to)
+                : statRepository.findByDoctorIdAndDayBetween(doctorId, from, to);
+
+        // (doctorId, day) -> [scheduled, completed, cancelled]
+        Map<Long, Map<LocalDate, long[]>> counts = new TreeMap<>();
+        for (AppointmentDailyStat row : rows) {
+            add(counts, row.getDoctorId(), row.getDay(), row.getStatus(), row.getAppointments());
+        }
+        pending.forEach((key, delta) -> {
+            boolean inRange = !key.getDay().isBefore(from) && !key.getDay().isAfter(to);
+            if (inRange && (doctorId == null || doctorId.equals(key.getDoctorId()))) {
+                add(counts, key.getDoctorId(), key.getDay(), key.getStatus(), delta);
+            }
+        });
+
+        long[] totals = new long[3];
+        List<Map<String, Object>> days = new ArrayList<>();
+        counts.forEach((doctor, byDay) -> byDay.forEach((day, c) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("doctorId", doctor);
+            entry.put("day", day.toString());
+            entry.put("scheduled", c[SCHEDULED]);
+            entry.put("completed", c[COMPLETED]);
+            entry.put("cancelled", c[CANCELLED]);
+            days.add(entry);
+            for (int i = 0; i < 3; i++) totals[i] += c[i];
+        }));
+
+        long total = totals[SCHEDULED] + totals[COMPLETED] + totals[CANCELLED];
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("appointments", total);
+        summary.put("scheduled", totals[SCHEDULED]);
+        summary.put("completed", totals[COMPLETED]);
+        summary.put("cancelled", totals[CANCELLED]);
+        summary.put("cancellationRate", total == 0 ? 0.0 : (double) totals[CANCELLED] / total);
+
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("summary", summary);
+        response.put("days", days);
+        return ResponseEntity.ok(response);
+    }
+
+    private static void add(Map<Long, Map<LocalDate, long[]>> counts, Long doctorId, LocalDate day,
+                            int status, long value) {
+        if (status < 0 || status > 2) return;
+        counts.computeIfAbsent(doctorId, d -> new TreeMap<>())
+                .computeIfAbsent(day, d -> new long[3])[status] += value;
+    }
+}
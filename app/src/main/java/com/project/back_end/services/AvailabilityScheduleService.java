@@ -0,0 +1,331 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.models.AvailabilityTemplate;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeOff;
+import com.project.back_end.repo.AvailabilityTemplateRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.TimeOffRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * AvailabilityScheduleService
+ *
+ * Recurring weekly schedules: a doctor's AvailabilityTemplates ("every Monday 09:00–12:00
+ * in 30-minute slots") minus their TimeOff (holidays, leave, blocked hours).
+ *
+ * Nothing is materialised in the database. A query for a date expands the templates of
+ * that date's week (Monday–Sunday) into "HH:mm-HH:mm" slots, and the expanded week is
+ * cached per (doctor, week) in a bounded, TTL-based LRU map, so repeated lookups within a
+ * week cost no queries. Editing a template drops all cached weeks of the doctor once the
+ * change commits; editing time off drops only the affected week.
+ *
+ * Doctors without templates keep using Doctor.availableTimes (see DoctorService).
+ */
+@Service
+public class AvailabilityScheduleService {
+
+    private final AvailabilityTemplateRepository templateRepository;
+    private final TimeOffRepository timeOffRepository;
+    private final DoctorRepository doctorRepository;
+    private final long ttlMillis;
+    private final int maxRangeDays;
+
+    // Access-ordered so that eviction removes the least recently used week
+    private final Map<WeekKey, Week> weeks;
+    // Bumped on every invalidation; a week expanded before a bump is not cached
+    private long generation;
+
+    @Autowired
+    public AvailabilityScheduleService(AvailabilityTemplateRepository templateRepository,
+                                       TimeOffRepository timeOffRepository,
+                                       DoctorRepository doctorRepository,
+                                       @Value("${app.schedule.week-cache.max-entries:5000}") int maxEntries,
+                                       @Value("${app.schedule.week-cache.ttl-seconds:600}") long ttlSeconds,
+                                       @Value("${app.schedule.max-range-days:62}") int maxRangeDays) {
+        this.templateRepository = templateRepository;
+        this.timeOffRepository = timeOffRepository;
+        this.doctorRepository = doctorRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxRangeDays = maxRangeDays;
+        this.weeks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WeekKey, Week> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------------
+    // Expansion
+    // ---------------------------------------------------------------------
+
+    /**
+     * Scheduled slots of a doctor on a date, sorted, with time off removed.
+     *
+     * @return empty if the doctor has no templates (their availableTimes apply instead)
+     */
+    public Optional<List<String>> getSlots(Long doctorId, LocalDate date) {
+        Week week = week(doctorId, date);
+        return week.scheduled ? Optional.of(week.days.getOrDefault(date, List.of())) : Optional.empty();
+    }
+
+    /**
+     * Scheduled slots per date between two dates (inclusive); only the weeks the range
+     * touches are expanded.
+     */
+    public ResponseEntity<Map<String, Object>> getScheduledSlots(Long doctorId, LocalDate from, LocalDate to) {
+        Map<String, Object> response = new HashMap<>();
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            response.put("message", "Range must be ascending and at most " + maxRangeDays + " days");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Map<String, List<String>> slots = new LinkedHashMap<>();
+        boolean scheduled = false;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Week week = week(doctorId, date);
+            scheduled |= week.scheduled;
+            slots.put(date.toString(), week.days.getOrDefault(date, List.of()));
+        }
+
+        response.put("doctorId", doctorId);
+        response.put("scheduled", scheduled);
+        response.put("slots", slots);
+        return ResponseEntity.ok(response);
+    }
+
+    private Week week(Long doctorId, LocalDate date) {
+        WeekKey key = new WeekKey(doctorId, date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        long loadedAt;
+        synchronized (weeks) {
+            Week cached = weeks.get(key);
+            if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+                return cached;
+            }
+            weeks.remove(key);
+            loadedAt = generation;
+        }
+
+        Week expanded = expand(key);
+        synchronized (weeks) {
+            if (generation == loadedAt) {
+                weeks.put(key, expanded);
+            }
+        }
+        return expanded;
+    }
+
+    private Week expand(WeekKey key) {
+        List<AvailabilityTemplate> templates = templateRepository.findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(key.doctorId);
+        if (templates.isEmpty()) {
+            return new Week(false, Map.of(), System.currentTimeMillis() + ttlMillis);
+        }
+
+        LocalDate weekEnd = key.weekStart.plusDays(6);
+        Map<LocalDate, List<TimeOff>> timeOff = new HashMap<>();
+        for (TimeOff off : timeOffRepository.findByDoctorIdAndDateBetweenOrderByDateAsc(key.doctorId, key.weekStart, weekEnd)) {
+            timeOff.computeIfAbsent(off.getDate(), d -> new ArrayList<>()).add(off);
+        }
+
+        Map<LocalDate, List<String>> days = new HashMap<>();
+        for (LocalDate date = key.weekStart; !date.isAfter(weekEnd); date = date.plusDays(1)) {
+            SortedSet<String> slots = AvailabilitySlots.forDate(date, templates, timeOff.getOrDefault(date, List.of()));
+            if (!slots.isEmpty()) {
+                days.put(date, List.copyOf(slots));
+            }
+        }
+        return new Week(true, Map.copyOf(days), System.currentTimeMillis() + ttlMillis);
+    }
+
+    // ---------------------------------------------------------------------
+    // Templates & time off
+    // ---------------------------------------------------------------------
+
+    /**
+     * Templates and upcoming time off of a doctor.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getSchedule(Long doctorId) {
+        Map<String, Object> response = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        response.put("doctorId", doctorId);
+        response.put("templates", templateRepository.findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(doctorId));
+        response.put("timeOff", timeOffRepository.findByDoctorIdAndDateBetweenOrderByDateAsc(doctorId, today, today.plusYears(1)));
+        return ResponseEntity.ok(response);
+    }
+
+    @Transactional
+    public ResponseEntity<Map<String, Object>> addTemplate(Long doctorId, AvailabilityTemplate template,
+                                                           AuthPrincipal principal) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(doctorId, principal);
+        if (denied != null) return denied;
+
+        Map<String, Object> response = new HashMap<>();
+        if (template.getDayOfWeek() == null || template.getStartTime() == null || template.getEndTime() == null) {
+            response.put("message", "dayOfWeek, startTime and endTime are required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (!template.getStartTime().isBefore(template.getEndTime())
+                || template.getSlotMinutes() < 5 || template.getSlotMinutes() > 720
+                || template.getValidFrom() != null && template.getValidUntil() != null
+                && template.getValidUntil().isBefore(template.getValidFrom())) {
+            response.put("message", "Times or validity dates out of order, or slot length not within 5-720 minutes");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        template.setId(null);
+        template.setDoctorId(doctorId);
+        response.put("template", templateRepository.save(template));
+        evictDoctor(doctorId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @Transactional
+    public ResponseEntity<Map<String, Object>> deleteTemplate(Long doctorId, Long templateId, AuthPrincipal principal) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(doctorId, principal);
+        if (denied != null) return denied;
+
+        Optional<AvailabilityTemplate> template = templateRepository.findById(templateId)
+                .filter(t -> t.getDoctorId().equals(doctorId));
+        if (template.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Template not found"));
+        }
+        templateRepository.delete(template.get());
+        evictDoctor(doctorId);
+        return ResponseEntity.ok(Map.of("message", "Template deleted"));
+    }
+
+    @Transactional
+    public ResponseEntity<Map<String, Object>> addTimeOff(Long doctorId, TimeOff timeOff, AuthPrincipal principal) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(doctorId, principal);
+        if (denied != null) return denied;
+
+        Map<String, Object> response = new HashMap<>();
+        if (timeOff.getDate() == null) {
+            response.put("message", "date is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        boolean partial = timeOff.getStartTime() != null && timeOff.getEndTime() != null
+                && timeOff.getStartTime().isBefore(timeOff.getEndTime());
+        if (!timeOff.isWholeDay() && !partial) {
+            response.put("message", "Give both start and end time (in order), or neither for a whole day");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        timeOff.setId(null);
+        timeOff.setDoctorId(doctorId);
+        response.put("timeOff", timeOffRepository.save(timeOff));
+        evictWeek(doctorId, timeOff.getDate());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @Transactional
+    public ResponseEntity<Map<String, Object>> deleteTimeOff(Long doctorId, Long timeOffId, AuthPrincipal principal) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(doctorId, principal);
+        if (denied != null) return denied;
+
+        Optional<TimeOff> timeOff = timeOffRepository.findById(timeOffId)
+                .filter(t -> t.getDoctorId().equals(doctorId));
+        if (timeOff.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Time off not found"));
+        }
+        timeOffRepository.delete(timeOff.get());
+        evictWeek(doctorId, timeOff.get().getDate());
+        return ResponseEntity.ok(Map.of("message", "Time off deleted"));
+    }
+
+    /**
+     * Removes a doctor's whole schedule, e.g. when the doctor is deleted.
+     */
+    @Transactional
+    public void deleteSchedule(Long doctorId) {
+        templateRepository.deleteAllByDoctorId(doctorId);
+        timeOffRepository.deleteAllByDoctorId(doctorId);
+        evictDoctor(doctorId);
+    }
+
+    private ResponseEntity<Map<String, Object>> checkAccess(Long doctorId, AuthPrincipal principal) {
+        if ("doctor".equals(principal.getRole()) && !Objects.equals(principal.getId(), doctorId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Doctors can only edit their own schedule"));
+        }
+        if (doctorRepository.findById(doctorId).filter(Doctor::isActive).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Doctor not found"));
+        }
+        return null;
+    }
+
+    // ---------------------------------------------------------------------
+    // Cache eviction
+    // ---------------------------------------------------------------------
+
+    // Evictions run after commit. Bumping the generation then also keeps a week that was
+    // expanded concurrently from the old rows out of the cache.
+
+    private void evictDoctor(Long doctorId) {
+        afterCommit(() -> {
+            synchronized (weeks) {
+                generation++;
+                weeks.keySet().removeIf(key -> key.doctorId.equals(doctorId));
+            }
+        });
+    }
+
+    private void evictWeek(Long doctorId, LocalDate date) {
+        WeekKey key = new WeekKey(doctorId, date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        afterCommit(() -> {
+            synchronized (weeks) {
+                generation++;
+                weeks.remove(key);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal structures
+    // ---------------------------------------------------------------------
+
+    private record WeekKey(Long doctorId, LocalDate weekStart) {
+    }
+
+    /** One expanded week; days without slots are absent. */
+    private static final class Week {
+        private final boolean scheduled;
+        private final Map<LocalDate, List<String>> days;
+        private final long expiresAt;
+
+        private Week(boolean scheduled, Map<LocalDate, List<String>> days, long expiresAt) {
+            this.scheduled = scheduled;
+            this.days = days;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
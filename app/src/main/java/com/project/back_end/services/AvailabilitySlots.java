@@ -0,0 +1,117 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.AvailabilityTemplate;
+import com.project.back_end.models.TimeOff;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * AvailabilitySlots
+ *
+ * Helpers for availability slots in the "HH:mm-HH:mm" format stored in
+ * Doctor.availableTimes and produced by weekly templates. Zero-padded times sort
+ * lexicographically in time order.
+ */
+public final class AvailabilitySlots {
+
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    private static final Pattern SLOT = Pattern.compile("([01]\\d|2[0-3]):[0-5]\\d-([01]\\d|2[0-3]):[0-5]\\d");
+
+    private AvailabilitySlots() {
+    }
+
+    /**
+     * True if the slot is well-formed and ends after it starts.
+     */
+    public static boolean isValid(String slot) {
+        return slot != null && SLOT.matcher(slot).matches() && start(slot).isBefore(end(slot));
+    }
+
+    public static LocalTime start(String slot) {
+        return LocalTime.parse(slot.substring(0, 5));
+    }
+
+    public static LocalTime end(String slot) {
+        return LocalTime.parse(slot.substring(6, 11));
+    }
+
+    /**
+     * True if the slot lies entirely within [from, to).
+     */
+    public static boolean within(String slot, LocalTime from, LocalTime to) {
+        return !start(slot).isBefore(from) && !end(slot).isAfter(to);
+    }
+
+    /**
+     * Consecutive slots of the given length from "HH:mm" to "HH:mm"; a remainder
+     * shorter than one slot is left out.
+     *
+     * @throws IllegalArgumentException if the times are malformed, out of order or the length is not positive
+     */
+    public static List<String> expand(String from, String to, int slotMinutes) {
+        return expand(parse(from), parse(to), slotMinutes);
+    }
+
+    /**
+     * Consecutive slots of the given length within [start, end); seconds are ignored.
+     *
+     * @throws IllegalArgumentException if the times are out of order or the length is not positive
+     */
+    public static List<String> expand(LocalTime start, LocalTime end, int slotMinutes) {
+        if (!start.isBefore(end) || slotMinutes <= 0) {
+            throw new IllegalArgumentException("Invalid range " + start + "-" + end + " / " + slotMinutes + " min");
+        }
+
+        List<String> slots = new ArrayList<>();
+        int last = end.toSecondOfDay() / 60;
+        for (int minute = start.toSecondOfDay() / 60; minute + slotMinutes <= last; minute += slotMinutes) {
+            slots.add(format(minute) + "-" + format(minute + slotMinutes));
+        }
+        return slots;
+    }
+
+    /**
+     * Slots the given weekly templates produce on a date, minus those overlapping time off
+     * on that date, in time order.
+     */
+    public static SortedSet<String> forDate(LocalDate date, List<AvailabilityTemplate> templates,
+                                            List<TimeOff> timeOff) {
+        SortedSet<String> slots = new TreeSet<>();
+        for (AvailabilityTemplate template : templates) {
+            if (!template.appliesTo(date)) continue;
+            for (String slot : expand(template.getStartTime(), template.getEndTime(), template.getSlotMinutes())) {
+                LocalTime start = start(slot);
+                LocalTime end = end(slot);
+                if (timeOff.stream().noneMatch(off -> date.equals(off.getDate()) && off.blocks(start, end))) {
+                    slots.add(slot);
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Parses a strict "HH:mm" time.
+     *
+     * @throws IllegalArgumentException if the time is malformed
+     */
+    public static LocalTime parse(String time) {
+        try {
+            return LocalTime.parse(time, HH_MM);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid time: " + time);
+        }
+    }
+
+    private static String format(int minuteOfDay) {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
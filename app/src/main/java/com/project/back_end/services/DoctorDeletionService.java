@@ -0,0 +1,279 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DoctorDeletionService
+ *
+ * Deletes a doctor together with their (possibly very long) appointment history.
+ *
+ * The doctor is first deactivated in one short transaction: from then on they cannot
+ * log in, are hidden from searches and cannot be booked, and their tokens are revoked.
+ * The appointments (live and archived) are then removed with set-based
+ * DELETE ... LIMIT statements, each in its own transaction, with a short pause between
+ * chunks, and finally the doctor's schedule, statistics and the doctor row itself are deleted.
+ *
+ * The cleanup runs either on the request thread or as a background job on the cleanup
+ * executor, with progress available per doctor. The deactivation flag doubles as the
+ * durable job record: deletions interrupted by a restart are resumed at startup.
+ */
+@Service
+public class DoctorDeletionService {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    // Finished jobs stay visible this long
+    private static final Duration RETENTION = Duration.ofHours(24);
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AvailabilityScheduleService scheduleService;
+    private final AppointmentStatistics statistics;
+    private final TokenRevocationList revocationList;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor cleanupExecutor;
+    private final int chunkSize;
+    private final long chunkPauseMs;
+
+    // One job per doctor ID
+    private final Map<Long, DeletionJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DoctorDeletionService(DoctorRepository doctorRepository,
+                                 AppointmentRepository appointmentRepository,
+                                 ArchivedAppointmentRepository archivedAppointmentRepository,
+                                 AvailabilityScheduleService scheduleService,
+                                 AppointmentStatistics statistics,
+                                 TokenRevocationList revocationList,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("cleanupExecutor") ThreadPoolExecutor cleanupExecutor,
+                                 @Value("${app.doctor-deletion.chunk-size:1000}") int chunkSize,
+                                 @Value("${app.doctor-deletion.chunk-pause-ms:50}") long chunkPauseMs) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.scheduleService = scheduleService;
+        this.statistics = statistics;
+        this.revocationList = revocationList;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cleanupExecutor = cleanupExecutor;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMs = chunkPauseMs;
+    }
+
+    // ---------------------------------------------------------------------
+    // Deletion
+    // ---------------------------------------------------------------------
+
+    /**
+     * Deactivates the doctor and deletes their appointments and the doctor row.
+     *
+     * @param id    doctor ID
+     * @param async if true, return 202 right after deactivation and clean up in the background
+     * @return 200 with the final counts, 202 with the job's progress, 404 if the doctor does not exist,
+     *         503 if the cleanup queue is full (the doctor stays deactivated and is resumed on restart)
+     */
+    public ResponseEntity<Map<String, Object>> deleteDoctor(Long id, boolean async) {
+        try {
+            DeletionJob running = jobs.get(id);
+            if (running != null && RUNNING.equals(running.status)) {
+                return new ResponseEntity<>(running.toMap(), HttpStatus.ACCEPTED);
+            }
+
+            if (!deactivate(id)) {
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("message", "Doctor not found with ID: " + id);
+                return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+            }
+
+            DeletionJob job = new DeletionJob(id);
+            DeletionJob existing = jobs.putIfAbsent(id, job);
+            if (existing != null) {
+                if (RUNNING.equals(existing.status)) {
+                    return new ResponseEntity<>(existing.toMap(), HttpStatus.ACCEPTED);
+                }
+                jobs.put(id, job);
+            }
+            purgeFinished();
+
+            if (!async) {
+                run(job);
+                return new ResponseEntity<>(job.toMap(),
+                        DONE.equals(job.status) ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+            try {
+                cleanupExecutor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(id, job);
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("message", "Doctor deactivated; cleanup queue is full, please retry later");
+                return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return new ResponseEntity<>(job.toMap(), HttpStatus.ACCEPTED);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", "Error deleting doctor");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Progress of the latest deletion job for a doctor.
+     */
+    public ResponseEntity<Map<String, Object>> getDeletion(Long id) {
+        DeletionJob job = jobs.get(id);
+        if (job == null) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", "No deletion job for doctor " + id);
+            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(job.toMap(), HttpStatus.OK);
+    }
+
+    /**
+     * Resumes deletions that were interrupted (e.g. by a restart). Doctors that do not fit
+     * into the cleanup queue stay deactivated without a job, so the next restart or a
+     * repeated DELETE picks them up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        try {
+            for (Long id : doctorRepository.findDeactivatedIds()) {
+                DeletionJob job = new DeletionJob(id);
+                if (jobs.putIfAbsent(id, job) != null) continue;
+                try {
+                    cleanupExecutor.execute(() -> run(job));
+                } catch (RejectedExecutionException e) {
+                    // Queue full: leave no RUNNING job behind and try the remaining doctors
+                    jobs.remove(id, job);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Marks the doctor as being deleted; the dirty-checked update also evicts cached tokens
+    private boolean deactivate(Long id) {
+        Boolean found = transactionTemplate.execute(status -> {
+            Optional<Doctor> doctor = doctorRepository.findById(id);
+            if (doctor.isEmpty()) return false;
+            if (doctor.get().isActive()) {
+                doctor.get().setDeactivatedAt(LocalDateTime.now());
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(found)) {
+            revocationList.revokeUser("doctor", id);
+            return true;
+        }
+        return false;
+    }
+
+    private void run(DeletionJob job) {
+        try {
+            int deleted;
+            do {
+                deleted = appointmentRepository.deleteChunkByDoctorId(job.doctorId, chunkSize);
+                job.appointmentsDeleted.addAndGet(deleted);
+                pauseIfMore(deleted);
+            } while (deleted == chunkSize);
+
+            do {
+                deleted = archivedAppointmentRepository.deleteChunkByDoctorId(job.doctorId, chunkSize);
+                job.archivedAppointmentsDeleted.addAndGet(deleted);
+                pauseIfMore(deleted);
+            } while (deleted == chunkSize);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                scheduleService.deleteSchedule(job.doctorId);
+                statistics.deleteDoctor(job.doctorId);
+                doctorRepository.findById(job.doctorId).ifPresent(doctorRepository::delete);
+            });
+            job.finish(DONE, null);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(FAILED, "Interrupted");
+        } catch (Exception e) {
+            e.printStackTrace();
+            job.finish(FAILED, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void pauseIfMore(int deleted) throws InterruptedException {
+        if (deleted == chunkSize && chunkPauseMs > 0) {
+            Thread.sleep(chunkPauseMs);
+        }
+    }
+
+    private void purgeFinished() {
+        LocalDateTime horizon = LocalDateTime.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(horizon));
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal structures
+    // ---------------------------------------------------------------------
+
+    private static final class DeletionJob {
+        private final Long doctorId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong appointmentsDeleted = new AtomicLong();
+        private final AtomicLong archivedAppointmentsDeleted = new AtomicLong();
+        private volatile String status = RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private DeletionJob(Long doctorId) {
+            this.doctorId = doctorId;
+        }
+
+        private void finish(String status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("doctorId", doctorId);
+            map.put("status", status);
+            map.put("appointmentsDeleted", appointmentsDeleted.get());
+            map.put("archivedAppointmentsDeleted", archivedAppointmentsDeleted.get());
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            if (error != null) map.put("error", error);
+            return map;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.DTO.AvailabilityPatch;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
-import com.project.back_end.DTO.Login; // if needed for validateDoctor input
+import com.project.back_end.models.Login;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +18,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -26,8 +30,7 @@ import java.util.stream.Collectors;
  * - Doctor has methods getId(), getEmail(), getName(), getSpecialty(), getAvailability()
  *   where getAvailability() returns List<String> of time-slots (e.g. "09:00", "14:30") or similar.
  * - Appointment has getAppointmentTime() (LocalDateTime) and getDoctorId().
- * - TokenService has methods: generateToken(String identifier, String role) and extractEmail(String token).
- *   If your TokenService API differs, adapt calls accordingly.
+ * - TokenService.generateToken(identifier, role, id) signs the role and ID into the token.
  */
 @Service
 public class DoctorService {
@@ -36,16 +39,22 @@ public class DoctorService {
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository; // used in some flows (optional)
     private final TokenService tokenService;
+    private final PasswordService passwordService;
+    private final AvailabilityScheduleService scheduleService;
 
     @Autowired
     public DoctorService(DoctorRepository doctorRepository,
                          AppointmentRepository appointmentRepository,
                          PatientRepository patientRepository,
-                         TokenService tokenService) {
+                         TokenService tokenService,
+                         PasswordService passwordService,
+                         AvailabilityScheduleService scheduleService) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.tokenService = tokenService;
+        this.passwordService = passwordService;
+        this.scheduleService = scheduleService;
     }
 
     // ---------------------------
@@ -54,6 +63,8 @@ public class DoctorService {
 
     /**
      * Returns available time slots for a doctor on a date by removing booked slots.
+     * Slots come from the doctor's weekly templates if they have any, otherwise from
+     * their availableTimes.
      *
      * @param doctorId doctor id
      * @param date     date for availability
@@ -62,11 +73,11 @@ public class DoctorService {
     @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
         Optional<Doctor> dOpt = Optional.ofNullable(doctorRepository.findById(doctorId).orElse(null));
-        if (dOpt.isEmpty()) return Collections.emptyList();
+        if (dOpt.isEmpty() || !dOpt.get().isActive()) return Collections.emptyList();
         Doctor doctor = dOpt.get();
 
-        // Assume doctor.getAvailability() returns List<String> like ["09:00","10:00","14:00", ...]
-        List<String> allSlots = Optional.ofNullable(doctor.getAvailability()).orElse(Collections.emptyList());
+        List<String> allSlots = scheduleService.getSlots(doctorId, date)
+                .orElseGet(() -> new ArrayList<>(doctor.getAvailableTimes()));
 
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
@@ -114,6 +125,7 @@ public class DoctorService {
             if (existing != null) {
                 return -1; // already exists
             }
+            doctor.setPassword(passwordService.hash(doctor.getPassword()));
             doctorRepository.save(doctor);
             return 1;
         } catch (Exception e) {
@@ -133,13 +145,20 @@ public class DoctorService {
             Optional<Doctor> opt = doctorRepository.findById(doctor.getId());
             if (opt.isEmpty()) return -1;
             Doctor exist = opt.get();
-            // Update fields - adjust according to your model
+            // Managed entity: the cached doctor and its availableTimes entry are
+            // replaced in the second-level cache when the transaction commits
             exist.setName(doctor.getName());
             exist.setEmail(doctor.getEmail());
             exist.setSpecialty(doctor.getSpecialty());
-            exist.setMobile(doctor.getMobile());
-            exist.setAvailability(doctor.getAvailability());
-            exist.setPassword(doctor.getPassword()); // if password updates allowed; or skip for safety
+            exist.setPhone(doctor.getPhone());
+            exist.getAvailableTimes().clear();
+            if (doctor.getAvailableTimes() != null) {
+                exist.getAvailableTimes().addAll(doctor.getAvailableTimes());
+            }
+            // No password in the request means unchanged: keep the stored hash
+            if (doctor.getPassword() != null) {
+                exist.setPassword(passwordService.hash(doctor.getPassword()));
+            }
             doctorRepository.save(exist);
             return 1;
         } catch (Exception e) {
@@ -149,33 +168,87 @@ public class DoctorService {
     }
 
     /**
-     * Retrieve all doctors.
-     * @return list of doctors
-     */
-    @Transactional(readOnly = true)
-    public List<Doctor> getDoctors() {
-        return doctorRepository.findAll();
-    }
-
-    /**
-     * Delete a doctor and associated appointments.
-     * @param id doctor id
-     * @return 1 success, -1 not found, 0 error
+     * Apply an incremental availability edit: add/remove individual slots or ranges.
+     * Only the delta is written (one INSERT or DELETE per changed slot), and only this
+     * doctor's entry in the availableTimes cache region is invalidated.
+     *
+     * @param doctorId  doctor whose availability is edited
+     * @param patch     slots and ranges to add or remove
+     * @param principal caller; doctors may only edit their own availability
+     * @return ResponseEntity with the slots actually added/removed and the resulting availability
      */
     @Transactional
-    public int deleteDoctor(long id) {
+    public ResponseEntity<Map<String, Object>> patchAvailability(Long doctorId, AvailabilityPatch patch,
+                                                                 AuthPrincipal principal) {
+        Map<String, Object> response = new HashMap<>();
+        if ("doctor".equals(principal.getRole()) && !Objects.equals(principal.getId(), doctorId)) {
+            response.put("message", "Doctors can only edit their own availability");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
+        Optional<Doctor> opt = doctorRepository.findById(doctorId);
+        if (opt.isEmpty() || !opt.get().isActive()) {
+            response.put("message", "Doctor not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        Set<String> current = opt.get().getAvailableTimes();
+
+        // Resolve the requested slots before touching the collection
+        Set<String> toAdd = new LinkedHashSet<>();
+        Set<String> toRemove = new LinkedHashSet<>();
+        List<String> invalid = new ArrayList<>();
         try {
-            Optional<Doctor> opt = doctorRepository.findById(id);
-            if (opt.isEmpty()) return -1;
+            for (String slot : Optional.ofNullable(patch.getAdd()).orElse(List.of())) {
+                if (AvailabilitySlots.isValid(slot)) toAdd.add(slot); else invalid.add(slot);
+            }
+            for (String slot : Optional.ofNullable(patch.getRemove()).orElse(List.of())) {
+                if (AvailabilitySlots.isValid(slot)) toRemove.add(slot); else invalid.add(slot);
+            }
+            for (AvailabilityPatch.SlotRange range : Optional.ofNullable(patch.getAddRanges()).orElse(List.of())) {
+                int minutes = range.getSlotMinutes() != null ? range.getSlotMinutes() : 60;
+                toAdd.addAll(AvailabilitySlots.expand(range.getFrom(), range.getTo(), minutes));
+            }
+            for (AvailabilityPatch.SlotRange range : Optional.ofNullable(patch.getRemoveRanges()).orElse(List.of())) {
+                LocalTime from = AvailabilitySlots.parse(range.getFrom());
+                LocalTime to = AvailabilitySlots.parse(range.getTo());
+                current.stream()
+                        .filter(slot -> AvailabilitySlots.isValid(slot) && AvailabilitySlots.within(slot, from, to))
+                        .forEach(toRemove::add);
+            }
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (!invalid.isEmpty()) {
+            response.put("message", "Invalid slots, expected HH:mm-HH:mm");
+            response.put("invalid", invalid);
+            return ResponseEntity.badRequest().body(response);
+        }
 
-            // remove appointments first
-            appointmentRepository.deleteAllByDoctorId(id);
-            doctorRepository.deleteById(id);
-            return 1;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 0;
+        // Removals first, so a slot both removed and added ends up present with no write
+        List<String> removed = new ArrayList<>();
+        for (String slot : toRemove) {
+            if (!toAdd.contains(slot) && current.remove(slot)) removed.add(slot);
+        }
+        List<String> added = new ArrayList<>();
+        for (String slot : toAdd) {
+            if (current.add(slot)) added.add(slot);
         }
+
+        response.put("message", added.isEmpty() && removed.isEmpty() ? "No changes" : "Availability updated");
+        response.put("added", added);
+        response.put("removed", removed);
+        response.put("availableTimes", new TreeSet<>(current));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieve all active doctors (doctors being deleted are excluded).
+     * @return list of doctors
+     */
+    @Transactional(readOnly = true)
+    public List<Doctor> getDoctors() {
+        return doctorRepository.findAllActive();
     }
 
     // ---------------------------
@@ -184,36 +257,52 @@ public class DoctorService {
 
     /**
      * Validate doctor credentials and return token or error in ResponseEntity map.
+     * The lookup runs on the caller's thread; the password check runs on the
+     * bounded login executor, and a saturated executor yields 503 immediately.
+     * Legacy plaintext passwords are re-hashed after a successful login.
      *
      * @param login Login DTO containing identifier (email) and password
-     * @return ResponseEntity with token in map on success or error message
+     * @return future ResponseEntity with token in map on success or error message
      */
     @Transactional(readOnly = true)
-    public ResponseEntity<Map<String, String>> validateDoctor(com.project.back_end.DTO.Login login) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> validateDoctor(Login login) {
         Map<String, String> resp = new HashMap<>();
         try {
             // Using email as identifier for doctor
             Doctor doctor = doctorRepository.findByEmail(login.getIdentifier());
-            if (doctor == null) {
-                resp.put("message", "Doctor not found");
-                return ResponseEntity.status(401).body(resp);
+            if (doctor == null || !doctor.isActive()) {
+                // Same BCrypt work as for a known doctor, so timing does not reveal emails
+                return passwordService.verifyUnknownUser(login.getPassword())
+                        .thenApply(ignored -> {
+                            resp.put("message", "Invalid credentials");
+                            return ResponseEntity.status(401).body(resp);
+                        })
+                        .exceptionally(e -> PasswordService.loginFailure(e, "Internal error"));
             }
 
-            // NOTE: replace this with a hashed password check if you store hashed passwords
-            if (!Objects.equals(doctor.getPassword(), login.getPassword())) {
-                resp.put("message", "Invalid credentials");
-                return ResponseEntity.status(401).body(resp);
-            }
+            String storedPassword = doctor.getPassword();
+            return passwordService.verify(login.getPassword(), storedPassword)
+                    .thenApply(matches -> {
+                        if (!matches) {
+                            resp.put("message", "Invalid credentials");
+                            return ResponseEntity.status(401).body(resp);
+                        }
+
+                        if (passwordService.needsRehash(storedPassword)) {
+                            doctorRepository.updatePassword(doctor.getId(), passwordService.hash(login.getPassword()));
+                        }
 
-            // Generate token. Assumption: tokenService.generateToken(identifier, role) exists
-            String token = tokenService.generateToken(doctor.getEmail(), "doctor");
-            resp.put("token", token);
-            resp.put("message", "Login successful");
-            return ResponseEntity.ok(resp);
+                        // Generate a role-bearing token so later requests need no doctor lookup
+                        String token = tokenService.generateToken(doctor.getEmail(), "doctor", doctor.getId());
+                        resp.put("token", token);
+                        resp.put("message", "Login successful");
+                        return ResponseEntity.ok(resp);
+                    })
+                    .exceptionally(e -> PasswordService.loginFailure(e, "Internal error"));
         } catch (Exception e) {
             e.printStackTrace();
             resp.put("message", "Internal error");
-            return ResponseEntity.status(500).body(resp);
+            return CompletableFuture.completedFuture(ResponseEntity.status(500).body(resp));
         }
     }
 
@@ -330,7 +419,7 @@ public class DoctorService {
     public Map<String, Object> filterDoctorsByTime(String amOrPm) {
         Map<String, Object> result = new HashMap<>();
         try {
-            List<Doctor> all = doctorRepository.findAll();
+            List<Doctor> all = doctorRepository.findAllActive();
             List<Doctor> filtered = filterDoctorByTime(all, amOrPm);
             result.put("doctors", filtered);
             return result;
@@ -0,0 +1,168 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LoginRateLimiter
+ *
+ * Token-bucket limiter for the login endpoints, keyed both by the identifier being
+ * logged into (email/username) and by the client address. Each bucket is an immutable
+ * state held in an AtomicReference and updated with compare-and-set, so concurrent
+ * attempts never block each other. Idle buckets are evicted in the background.
+ *
+ * Controllers call check() before touching the service layer, so a rejected attempt
+ * costs no repository lookup; the rejection counters therefore equal the DB load shed.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Limit identifierLimit;
+    private final Limit addressLimit;
+    private final Map<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+
+    private final Counter allowed;
+    private final Counter rejectedByIdentifier;
+    private final Counter rejectedByAddress;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${auth.login.rate-limit.identifier.capacity:5}") int identifierCapacity,
+                            @Value("${auth.login.rate-limit.identifier.per-minute:5}") double identifierPerMinute,
+                            @Value("${auth.login.rate-limit.address.capacity:20}") int addressCapacity,
+                            @Value("${auth.login.rate-limit.address.per-minute:30}") double addressPerMinute,
+                            MeterRegistry registry) {
+        this.identifierLimit = new Limit(identifierCapacity, identifierPerMinute);
+        this.addressLimit = new Limit(addressCapacity, addressPerMinute);
+
+        this.allowed = Counter.builder("login.ratelimit.allowed")
+                .description("Login attempts that passed the rate limiter")
+                .register(registry);
+        this.rejectedByIdentifier = Counter.builder("login.ratelimit.rejected")
+                .description("Login attempts rejected before any database lookup")
+                .tag("key", "identifier")
+                .register(registry);
+        this.rejectedByAddress = Counter.builder("login.ratelimit.rejected")
+                .description("Login attempts rejected before any database lookup")
+                .tag("key", "address")
+                .register(registry);
+        registry.gauge("login.ratelimit.buckets", buckets, Map::size);
+    }
+
+    // ---------------------------------------------------------------------
+    // Checks
+    // ---------------------------------------------------------------------
+
+    /**
+     * Takes one token from the client-address bucket and one from the identifier bucket.
+     *
+     * @return null if the attempt may proceed, otherwise a 429 response with Retry-After
+     */
+    public ResponseEntity<Map<String, String>> check(String identifier, HttpServletRequest request) {
+        long now = System.nanoTime();
+
+        long waitNanos = tryAcquire("ip:" + request.getRemoteAddr(), addressLimit, now);
+        if (waitNanos > 0) {
+            rejectedByAddress.increment();
+            return tooManyAttempts(waitNanos);
+        }
+
+        if (identifier != null && !identifier.isBlank()) {
+            waitNanos = tryAcquire("id:" + identifier.trim().toLowerCase(Locale.ROOT), identifierLimit, now);
+            if (waitNanos > 0) {
+                rejectedByIdentifier.increment();
+                return tooManyAttempts(waitNanos);
+            }
+        }
+
+        allowed.increment();
+        return null;
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanoseconds until one becomes available
+     */
+    private long tryAcquire(String key, Limit limit, long now) {
+        AtomicReference<Bucket> ref = buckets.computeIfAbsent(key,
+                k -> new AtomicReference<>(new Bucket(limit.capacity, now)));
+
+        while (true) {
+            Bucket current = ref.get();
+            double tokens = current.tokensAt(now, limit);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / limit.tokensPerNano);
+            }
+            if (ref.compareAndSet(current, new Bucket(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> tooManyAttempts(long waitNanos) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(Map.of("message", "Too many login attempts, please retry later"));
+    }
+
+    // ---------------------------------------------------------------------
+    // Eviction
+    // ---------------------------------------------------------------------
+
+    /**
+     * Drops buckets that have refilled completely; a fresh bucket would behave the same.
+     * An attempt racing with the removal lands on the detached bucket, which at worst
+     * forgets that single attempt.
+     */
+    @Scheduled(fixedDelayString = "${auth.login.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> {
+            Limit limit = entry.getKey().startsWith("ip:") ? addressLimit : identifierLimit;
+            return entry.getValue().get().tokensAt(now, limit) >= limit.capacity;
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal structures
+    // ---------------------------------------------------------------------
+
+    private static final class Limit {
+        private final double capacity;
+        private final double tokensPerNano;
+
+        private Limit(int capacity, double perMinute) {
+            this.capacity = Math.max(1, capacity);
+            this.tokensPerNano = perMinute / TimeUnit.MINUTES.toNanos(1);
+        }
+    }
+
+    /** Immutable bucket state; replaced as a whole on every successful acquire. */
+    private static final class Bucket {
+        private final double tokens;
+        private final long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        private double tokensAt(long now, Limit limit) {
+            long elapsed = Math.max(0, now - updatedAt);
+            return Math.min(limit.capacity, tokens + elapsed * limit.tokensPerNano);
+        }
+    }
+}
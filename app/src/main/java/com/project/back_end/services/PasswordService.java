@@ -0,0 +1,117 @@
+package com.project.back_end.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * PasswordService
+ *
+ * Hashes and verifies passwords for Admins, Doctors and Patients with BCrypt.
+ * Rows created before hashing was introduced still hold plaintext; those are
+ * compared in constant time and flagged by needsRehash() so the login flow can
+ * upgrade them transparently.
+ *
+ * Verification runs on the bounded "loginExecutor" pool (see LoginExecutorConfig).
+ */
+@Component
+public class PasswordService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final Executor loginExecutor;
+    // Hash at the configured cost, checked for logins of unknown users
+    private final String dummyHash;
+
+    @Autowired
+    public PasswordService(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                           @Qualifier("loginExecutor") Executor loginExecutor) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.loginExecutor = loginExecutor;
+        this.dummyHash = encoder.encode("unknown-user-placeholder");
+    }
+
+    /**
+     * Hashes a raw password. Input from clients is always encoded, even if it looks like
+     * a BCrypt hash, so nobody can store a precomputed hash that bypasses the cost policy.
+     * Callers keep the existing hash themselves when a password is left unchanged (null).
+     */
+    public String hash(String rawPassword) {
+        if (rawPassword == null) return null;
+        return encoder.encode(rawPassword);
+    }
+
+    /**
+     * Verifies a password on the login executor.
+     * The future fails with RejectedExecutionException when the executor is saturated.
+     */
+    public CompletableFuture<Boolean> verify(String rawPassword, String storedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> matches(rawPassword, storedPassword), loginExecutor);
+        } catch (RejectedExecutionException e) {
+            // Thrown by the rejection handler on the caller's thread; fail the future instead,
+            // so the callers' exceptionally(loginFailure) answers 503 rather than 500
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Does the same BCrypt work as verify() for a login whose user does not exist, so the
+     * response time does not reveal which identifiers are registered. Completes with false
+     * (or fails like verify() when the executor is saturated).
+     */
+    public CompletableFuture<Boolean> verifyUnknownUser(String rawPassword) {
+        return verify(rawPassword == null ? "" : rawPassword, dummyHash).thenApply(ignored -> false);
+    }
+
+    /**
+     * True if the stored value should be replaced by a fresh hash after a successful login.
+     */
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    private boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) return false;
+        if (isHashed(storedPassword)) {
+            return encoder.matches(rawPassword, storedPassword);
+        }
+        // Legacy plaintext row
+        return MessageDigest.isEqual(
+                rawPassword.getBytes(StandardCharsets.UTF_8),
+                storedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isHashed(String value) {
+        return value.length() == 60
+                && (value.startsWith("$2a$") || value.startsWith("$2b$") || value.startsWith("$2y$"));
+    }
+
+    /**
+     * Maps a failed login future to a response: 503 when the login executor
+     * rejected the work (client should retry shortly), 500 otherwise.
+     */
+    public static ResponseEntity<Map<String, String>> loginFailure(Throwable error, String message) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Too many logins in progress, please retry"));
+        }
+        cause.printStackTrace();
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", message));
+    }
+}
@@ -0,0 +1,209 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * PatientDashboardService
+ *
+ * Builds the patient dashboard in one call: patient details and appointments from
+ * MySQL and prescriptions from MongoDB are fetched concurrently on the bounded
+ * dashboard executor. Prescriptions only need the appointment IDs, which come from
+ * a separate ID-only query, so they do not wait for the full appointment load.
+ * Both include archived appointments, like the other patient appointment reads.
+ *
+ * Every source has its own timeout. A source that times out or fails is left out
+ * of the response and listed under "errors"; the others are still returned. The
+ * timeout also bounds the work itself, so an abandoned source does not keep holding a
+ * connection and a dashboard thread: the MySQL reads run in a transaction whose
+ * deadline is the source's timeout (every query gets the remaining time as
+ * jakarta.persistence.query.timeout), and the MongoDB read gets the rest as maxTimeMS.
+ */
+@Service
+public class PatientDashboardService {
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AppointmentArchiveService appointmentArchiveService;
+    private final MongoTemplate mongoTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor dashboardExecutor;
+    private final long patientTimeoutMs;
+    private final long appointmentsTimeoutMs;
+    private final long prescriptionsTimeoutMs;
+
+    @Autowired
+    public PatientDashboardService(PatientRepository patientRepository,
+                                   AppointmentRepository appointmentRepository,
+                                   ArchivedAppointmentRepository archivedAppointmentRepository,
+                                   AppointmentArchiveService appointmentArchiveService,
+                                   MongoTemplate mongoTemplate,
+                                   EntityManagerFactory entityManagerFactory,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("dashboardExecutor") Executor dashboardExecutor,
+                                   @Value("${app.dashboard.timeout.patient-ms:1000}") long patientTimeoutMs,
+                                   @Value("${app.dashboard.timeout.appointments-ms:2000}") long appointmentsTimeoutMs,
+                                   @Value("${app.dashboard.timeout.prescriptions-ms:2000}") long prescriptionsTimeoutMs) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.appointmentArchiveService = appointmentArchiveService;
+        this.mongoTemplate = mongoTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dashboardExecutor = dashboardExecutor;
+        this.patientTimeoutMs = patientTimeoutMs;
+        this.appointmentsTimeoutMs = appointmentsTimeoutMs;
+        this.prescriptionsTimeoutMs = prescriptionsTimeoutMs;
+    }
+
+    /**
+     * Fetches all dashboard sources for the authenticated patient and merges them.
+     * The future completes once every source has answered or timed out.
+     */
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getDashboard(AuthPrincipal principal) {
+        Long patientId = principal.getId();
+        // Deadlines start now, so time spent queued for a dashboard thread counts too
+        long now = System.currentTimeMillis();
+        long patientDeadline = now + patientTimeoutMs;
+        long appointmentsDeadline = now + appointmentsTimeoutMs;
+        long prescriptionsDeadline = now + prescriptionsTimeoutMs;
+
+        CompletableFuture<Optional<Patient>> patient =
+                fetch(() -> withDeadline(patientDeadline,
+                        () -> patientRepository.findDetailsById(patientId)), patientTimeoutMs);
+
+        CompletableFuture<List<AppointmentDTO>> appointments =
+                fetch(() -> withDeadline(appointmentsDeadline,
+                        () -> appointmentArchiveService.findPatientAppointments(patientId, null, null)),
+                        appointmentsTimeoutMs);
+
+        CompletableFuture<List<Prescription>> prescriptions =
+                fetch(() -> {
+                    List<Long> appointmentIds = withDeadline(prescriptionsDeadline, () -> {
+                        List<Long> ids = new ArrayList<>(appointmentRepository.findIdsByPatientId(patientId));
+                        ids.addAll(archivedAppointmentRepository.findIdsByPatientId(patientId));
+                        return ids;
+                    });
+                    if (appointmentIds.isEmpty()) return List.<Prescription>of();
+
+                    Query query = new Query(Criteria.where("appointmentId").in(appointmentIds))
+                            .maxTimeMsec(Math.max(1, prescriptionsDeadline - System.currentTimeMillis()));
+                    return mongoTemplate.find(query, Prescription.class);
+                }, prescriptionsTimeoutMs);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        CompletableFuture<Void> merged = CompletableFuture.allOf(
+                collect(patient, "patient", response, errors),
+                collect(appointments, "appointments", response, errors),
+                collect(prescriptions, "prescriptions", response, errors));
+
+        return merged.thenApply(ignored -> {
+            synchronized (response) {
+                Object details = response.get("patient");
+                if (details instanceof Optional<?> optional) {
+                    if (optional.isEmpty()) {
+                        Map<String, Object> notFound = new HashMap<>();
+                        notFound.put("message", "Patient not found");
+                        return new ResponseEntity<>(notFound, HttpStatus.NOT_FOUND);
+                    }
+                    response.put("patient", optional.get());
+                }
+                if (!errors.isEmpty()) {
+                    response.put("errors", errors);
+                }
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            }
+        });
+    }
+
+    /**
+     * Runs one source on the dashboard executor, bounded by its own timeout.
+     * A full executor fails the source immediately rather than blocking the caller.
+     */
+    private <T> CompletableFuture<T> fetch(Supplier<T> source, long timeoutMs) {
+        try {
+            return CompletableFuture.supplyAsync(source, dashboardExecutor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs MySQL reads in a transaction that ends at the given deadline: Spring passes the
+     * remaining time to each query as jakarta.persistence.query.timeout (and fails queries
+     * issued after it), so the database cancels a read the dashboard has stopped waiting
+     * for. Not read-only, so the reads stay on the primary as before.
+     */
+    private <T> T withDeadline(long deadline, Supplier<T> reads) {
+        return transactionTemplate.execute(status -> {
+            // The template only takes whole seconds; set the millisecond deadline directly
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+            if (holder != null) {
+                holder.setTimeoutInMillis(deadline - System.currentTimeMillis());
+            }
+            return reads.get();
+        });
+    }
+
+    /**
+     * Stores a source's result under its key, or records why it is missing.
+     * Never completes exceptionally, so one slow source cannot fail the whole dashboard.
+     */
+    private static CompletableFuture<Void> collect(CompletableFuture<?> source, String key,
+                                                   Map<String, Object> response, Map<String, String> errors) {
+        return source.handle((value, error) -> {
+            synchronized (response) {
+                if (error == null) {
+                    response.put(key, value);
+                    return null;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (cause instanceof TimeoutException) {
+                    errors.put(key, "timed out");
+                } else if (cause instanceof RejectedExecutionException) {
+                    errors.put(key, "busy, please retry");
+                } else {
+                    cause.printStackTrace();
+                    errors.put(key, "unavailable");
+                }
+                return null;
+            }
+        });
+    }
+}
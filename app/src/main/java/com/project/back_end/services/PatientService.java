@@ -1,18 +1,19 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AuthPrincipal;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.models.Login;
-import com.project.back_end.dto.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
-import com.project.back_end.security.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,15 +23,18 @@ public class PatientService {
 
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
-    private final TokenService tokenService;
+    private final PasswordService passwordService;
+    private final AppointmentArchiveService appointmentArchiveService;
 
     @Autowired
     public PatientService(PatientRepository patientRepository,
                           AppointmentRepository appointmentRepository,
-                          TokenService tokenService) {
+                          PasswordService passwordService,
+                          AppointmentArchiveService appointmentArchiveService) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
-        this.tokenService = tokenService;
+        this.passwordService = passwordService;
+        this.appointmentArchiveService = appointmentArchiveService;
     }
 
     /**
@@ -38,6 +42,7 @@ public class PatientService {
      */
     public int createPatient(Patient patient) {
         try {
+            patient.setPassword(passwordService.hash(patient.getPassword()));
             patientRepository.save(patient);
             return 1;
         } catch (Exception e) {
@@ -50,21 +55,16 @@ public class PatientService {
      * Retrieves a list of appointments for a specific patient.
      */
     @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, AuthPrincipal principal) {
         Map<String, Object> response = new HashMap<>();
         try {
-            String email = tokenService.extractEmail(token);
-            Optional<Patient> patientOpt = patientRepository.findByEmail(email);
-
-            if (patientOpt.isEmpty() || !Objects.equals(patientOpt.get().getId(), id)) {
+            if (!Objects.equals(principal.getId(), id)) {
                 response.put("message", "Unauthorized access");
                 return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
             }
 
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
+            // Full history: live appointments plus any archived ones
+            List<AppointmentDTO> appointmentDTOs = appointmentArchiveService.findPatientAppointments(id, null, null);
 
             response.put("appointments", appointmentDTOs);
             return new ResponseEntity<>(response, HttpStatus.OK);
@@ -81,28 +81,19 @@ public class PatientService {
     public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
         Map<String, Object> response = new HashMap<>();
         try {
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id);
-
             LocalDateTime now = LocalDateTime.now();
-            List<Appointment> filtered;
+            List<AppointmentDTO> appointmentDTOs;
 
+            // Only "past" can reach into the appointment archive
             if ("past".equalsIgnoreCase(condition)) {
-                filtered = appointments.stream()
-                        .filter(app -> app.getAppointmentTime().isBefore(now))
-                        .collect(Collectors.toList());
+                appointmentDTOs = appointmentArchiveService.findPatientAppointments(id, null, now);
             } else if ("future".equalsIgnoreCase(condition)) {
-                filtered = appointments.stream()
-                        .filter(app -> app.getAppointmentTime().isAfter(now))
-                        .collect(Collectors.toList());
+                appointmentDTOs = appointmentArchiveService.findPatientAppointments(id, now, null);
             } else {
                 response.put("message", "Invalid condition. Use 'past' or 'future'.");
                 return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
             }
 
-            List<AppointmentDTO> appointmentDTOs = filtered.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-
             response.put("appointments", appointmentDTOs);
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (Exception e) {
@@ -111,6 +102,33 @@ public class PatientService {
         }
     }
 
+    /**
+     * Retrieves the authenticated patient's appointments between two dates (inclusive),
+     * oldest first. The archive is only queried if the range reaches back into it.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getAppointmentHistory(AuthPrincipal principal,
+                                                                     LocalDate from, LocalDate to) {
+        Map<String, Object> response = new HashMap<>();
+        if (from != null && to != null && to.isBefore(from)) {
+            response.put("message", "'to' must not be before 'from'");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<AppointmentDTO> appointmentDTOs = appointmentArchiveService.findPatientAppointments(
+                    principal.getId(),
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null);
+
+            response.put("appointments", appointmentDTOs);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("message", "Error retrieving appointment history");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Filters appointments by doctor's name.
      */
@@ -172,14 +190,13 @@ public class PatientService {
     }
 
     /**
-     * Retrieves patient details using token.
+     * Retrieves patient details for the authenticated patient.
      */
     @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientDetails(String token) {
+    public ResponseEntity<Map<String, Object>> getPatientDetails(AuthPrincipal principal) {
         Map<String, Object> response = new HashMap<>();
         try {
-            String email = tokenService.extractEmail(token);
-            Optional<Patient> patientOpt = patientRepository.findByEmail(email);
+            Optional<Patient> patientOpt = patientRepository.findById(principal.getId());
 
             if (patientOpt.isEmpty()) {
                 response.put("message", "Patient not found");
@@ -0,0 +1,104 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * PrescriptionBackfill
+ *
+ * One-off, idempotent migration for prescriptions written before patientId,
+ * doctorId and issuedAt existed. Documents missing doctorId are read in _id order,
+ * their appointments are resolved with one MySQL query per batch, and the fields
+ * are written back with one bulk update per batch. issuedAt falls back to the
+ * appointment time, the closest record of when the prescription was written.
+ *
+ * Documents whose appointment no longer exists are skipped and stay out of the
+ * patient history. Runs once the application is ready (the server is already
+ * serving requests) and finishes quickly once everything has been migrated.
+ */
+@Component
+public class PrescriptionBackfill {
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRepository appointmentRepository;
+    private final int batchSize;
+
+    @Autowired
+    public PrescriptionBackfill(MongoTemplate mongoTemplate,
+                                AppointmentRepository appointmentRepository,
+                                @Value("${app.prescription.backfill-batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            String lastId = null;
+            while (true) {
+                Criteria criteria = Criteria.where("doctorId").exists(false);
+                if (lastId != null) {
+                    criteria = criteria.and("_id").gt(new ObjectId(lastId));
+                }
+                Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+                query.fields().include("appointmentId");
+
+                List<Prescription> batch = mongoTemplate.find(query, Prescription.class);
+                if (batch.isEmpty()) break;
+                lastId = batch.get(batch.size() - 1).getId();
+
+                apply(batch);
+                if (batch.size() < batchSize) break;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void apply(List<Prescription> batch) {
+        Set<Long> appointmentIds = new HashSet<>();
+        for (Prescription prescription : batch) {
+            if (prescription.getAppointmentId() != null) {
+                appointmentIds.add(prescription.getAppointmentId());
+            }
+        }
+        if (appointmentIds.isEmpty()) return;
+
+        Map<Long, AppointmentRef> refs = new HashMap<>();
+        for (AppointmentRef ref : appointmentRepository.findRefsByIdIn(appointmentIds)) {
+            refs.put(ref.getId(), ref);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class);
+        boolean any = false;
+        for (Prescription prescription : batch) {
+            AppointmentRef ref = refs.get(prescription.getAppointmentId());
+            if (ref == null) continue;
+            bulk.updateOne(
+                    new Query(Criteria.where("_id").is(prescription.getId()).and("doctorId").exists(false)),
+                    new Update().set("patientId", ref.getPatientId()).set("doctorId", ref.getDoctorId()));
+            // Only where missing: documents created after issuedAt was introduced keep their own
+            bulk.updateOne(
+                    new Query(Criteria.where("_id").is(prescription.getId()).and("issuedAt").exists(false)),
+                    new Update().set("issuedAt", ref.getAppointmentTime()));
+            any = true;
+        }
+        if (any) bulk.execute();
+    }
+}
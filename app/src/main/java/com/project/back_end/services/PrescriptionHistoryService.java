@@ -0,0 +1,118 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+/**
+ * PrescriptionHistoryService
+ *
+ * Builds a patient's medication history with one aggregation on the
+ * (patientId, issuedAt) index. Paging and the optional "latest per medication"
+ * collapse both run inside MongoDB, and a $facet returns the page together with
+ * the total count in a single round trip.
+ */
+@Service
+public class PrescriptionHistoryService {
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final int maxPageSize;
+
+    @Autowired
+    public PrescriptionHistoryService(MongoTemplate mongoTemplate,
+                                      AppointmentRepository appointmentRepository,
+                                      ArchivedAppointmentRepository archivedAppointmentRepository,
+                                      @Value("${app.prescription.history.max-page-size:100}") int maxPageSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * True if the doctor treats the patient, i.e. has a live or archived appointment
+     * with them. Doctors may only read the history of their own patients.
+     */
+    public boolean isTreatingDoctor(Long doctorId, Long patientId) {
+        return appointmentRepository.existsByDoctorIdAndPatientId(doctorId, patientId)
+                || archivedAppointmentRepository.existsByDoctorIdAndPatientId(doctorId, patientId);
+    }
+
+    /**
+     * Retrieves one page of a patient's prescriptions, newest first.
+     *
+     * @param patientId          the patient ID
+     * @param page               zero-based page number
+     * @param size               page size (capped at the configured maximum)
+     * @param latestPerMedication if true, only the most recent prescription of each medication is returned
+     * @return ResponseEntity with prescriptions, paging info, or error message
+     */
+    public ResponseEntity<Map<String, Object>> getHistory(Long patientId, int page, int size,
+                                                          boolean latestPerMedication) {
+        Map<String, Object> response = new HashMap<>();
+        if (page < 0 || size < 1) {
+            response.put("message", "Invalid page or size");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = Math.min(size, maxPageSize);
+
+        try {
+            List<AggregationOperation> stages = new ArrayList<>();
+            stages.add(match(Criteria.where("patientId").is(patientId)));
+            stages.add(sort(Sort.by(Sort.Direction.DESC, "issuedAt")));
+
+            if (latestPerMedication) {
+                // Input is sorted newest first, so $first keeps the latest of each medication
+                stages.add(group("medication").first(ROOT).as("latest"));
+                stages.add(replaceRoot("latest"));
+                stages.add(sort(Sort.by(Sort.Direction.DESC, "issuedAt")));
+            }
+
+            stages.add(project().andExclude("outbox"));
+            stages.add(facet(skip((long) page * pageSize), limit(pageSize)).as("items")
+                    .and(count().as("total")).as("total"));
+
+            Document result = mongoTemplate.aggregate(
+                    newAggregation(stages), Prescription.class, Document.class).getUniqueMappedResult();
+
+            List<Prescription> items = new ArrayList<>();
+            long total = 0;
+            if (result != null) {
+                for (Document item : result.getList("items", Document.class)) {
+                    items.add(mongoTemplate.getConverter().read(Prescription.class, item));
+                }
+                List<Document> totals = result.getList("total", Document.class);
+                if (!totals.isEmpty()) {
+                    total = ((Number) totals.get(0).get("total")).longValue();
+                }
+            }
+
+            response.put("prescriptions", items);
+            response.put("page", page);
+            response.put("size", pageSize);
+            response.put("total", total);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("message", "An error occurred while retrieving the prescription history");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentStatusRef;
+import com.project.back_end.models.OutboxRecord;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * PrescriptionOutboxRelay
+ *
+ * Applies the MySQL side of saved prescriptions (appointment marked as prescribed)
+ * from the outbox records embedded in the prescription documents. Due PENDING
+ * records are read in batches, the whole batch is applied with one bulk UPDATE,
+ * and the records are then marked DONE. The appointments it changes are counted as
+ * completed in the admin statistics.
+ *
+ * The UPDATE only touches scheduled appointments (status 0), so re-applying a batch
+ * (e.g. after a crash between the MySQL update and the Mongo acknowledgement, or
+ * with several instances polling) is harmless. A failed batch is retried with
+ * exponential backoff; records that keep failing end up FAILED for inspection.
+ *
+ * Metrics: outbox.relay.applied / outbox.relay.failed (throughput),
+ * outbox.relay.batch (timer), outbox.relay.lag.seconds (age of the oldest due record)
+ * and outbox.relay.pending.
+ */
+@Component
+public class PrescriptionOutboxRelay {
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentStatistics statistics;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration maxBackoff;
+
+    private final Counter applied;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+
+    @Autowired
+    public PrescriptionOutboxRelay(MongoTemplate mongoTemplate,
+                                   AppointmentRepository appointmentRepository,
+                                   AppointmentStatistics statistics,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.outbox.batch-size:200}") int batchSize,
+                                   @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                                   @Value("${app.outbox.max-backoff-seconds:300}") long maxBackoffSeconds,
+                                   MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.statistics = statistics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+
+        this.applied = Counter.builder("outbox.relay.applied")
+                .description("Outbox records applied to MySQL")
+                .register(registry);
+        this.failed = Counter.builder("outbox.relay.failed")
+                .description("Outbox record attempts that failed and were rescheduled")
+                .register(registry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to apply one outbox batch")
+                .register(registry);
+        registry.gauge("outbox.relay.lag.seconds", lagSeconds);
+        registry.gauge("outbox.relay.pending", pending);
+    }
+
+    /**
+     * Drains due outbox records, one batch at a time, until none are left.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            int fetched;
+            do {
+                List<Prescription> batch = nextBatch();
+                fetched = batch.size();
+                if (fetched > 0) {
+                    batchTimer.record(() -> apply(batch));
+                }
+            } while (fetched == batchSize);
+            updateGauges();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private List<Prescription> nextBatch() {
+        Query query = new Query(dueCriteria(Instant.now()))
+                .with(Sort.by(Sort.Direction.ASC, "outbox.nextAttemptAt"))
+                .limit(batchSize);
+        query.fields().include("appointmentId").include("outbox");
+        return mongoTemplate.find(query, Prescription.class);
+    }
+
+    private void apply(List<Prescription> batch) {
+        Set<Long> appointmentIds = batch.stream()
+                .map(Prescription::getAppointmentId)
+                .collect(Collectors.toSet());
+        List<String> ids = batch.stream().map(Prescription::getId).collect(Collectors.toList());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (AppointmentStatusRef row : appointmentRepository.lockUnprescribed(appointmentIds)) {
+                    statistics.moved(row.getDoctorId(), row.getAppointmentTime(), row.getStatus(),
+                            row.getDoctorId(), row.getAppointmentTime(), AppointmentStatistics.COMPLETED);
+                }
+                appointmentRepository.markPrescribed(appointmentIds);
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            for (Prescription prescription : batch) {
+                reschedule(prescription, e);
+            }
+            return;
+        }
+
+        Query done = new Query(Criteria.where("_id").in(ids).and("outbox.status").is(OutboxRecord.PENDING));
+        mongoTemplate.updateMulti(done, new Update()
+                .set("outbox.status", OutboxRecord.DONE)
+                .set("outbox.processedAt", Instant.now()), Prescription.class);
+        applied.increment(batch.size());
+    }
+
+    private void reschedule(Prescription prescription, Exception error) {
+        int attempts = prescription.getOutbox().getAttempts() + 1;
+        Update update = new Update()
+                .set("outbox.attempts", attempts)
+                .set("outbox.lastError", String.valueOf(error.getMessage()));
+        if (attempts >= maxAttempts) {
+            update.set("outbox.status", OutboxRecord.FAILED);
+        } else {
+            update.set("outbox.nextAttemptAt", Instant.now().plus(backoff(attempts)));
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(prescription.getId())), update, Prescription.class);
+        failed.increment();
+    }
+
+    // 1s, 2s, 4s, ... capped at maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void updateGauges() {
+        Instant now = Instant.now();
+        pending.set(mongoTemplate.count(
+                new Query(Criteria.where("outbox.status").is(OutboxRecord.PENDING)), Prescription.class));
+
+        Query oldest = new Query(dueCriteria(now))
+                .with(Sort.by(Sort.Direction.ASC, "outbox.nextAttemptAt"))
+                .limit(1);
+        oldest.fields().include("outbox");
+        Prescription head = mongoTemplate.findOne(oldest, Prescription.class);
+        lagSeconds.set(head == null ? 0 : Duration.between(head.getOutbox().getCreatedAt(), now).toSeconds());
+    }
+
+    private static Criteria dueCriteria(Instant now) {
+        return Criteria.where("outbox.status").is(OutboxRecord.PENDING)
+                .and("outbox.nextAttemptAt").lte(now);
+    }
+}
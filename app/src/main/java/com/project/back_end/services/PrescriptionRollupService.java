@@ -0,0 +1,281 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Prescription;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+/**
+ * PrescriptionRollupService
+ *
+ * Maintains two small rollup collections for admin analytics, so reads never
+ * touch the raw prescriptions collection:
+ *
+ *   prescription_rollup_doctor_month  one document per (doctor, month, medication)
+ *   prescription_rollup_month         one document per month, across all doctors
+ *
+ * each holding count, refillTotal (sum of refillCount) and withRefills (how many
+ * had at least one refill).
+ *
+ * Incremental path: new prescriptions carry outbox.rolledUp = false. A scheduled
+ * job claims each one (atomically flipping the flag) and applies the aggregated
+ * increments with one bulk upsert per collection. If a bulk write fails, the batch's
+ * claims are released again so the next run retries it; only a crash between claim
+ * and increment loses a batch, which the rebuild repairs.
+ *
+ * Rebuild: recomputes the doctor/month collection from scratch with one aggregation
+ * ending in $out (an atomic replace), then derives the monthly collection from it.
+ */
+@Service
+public class PrescriptionRollupService {
+
+    public static final String DOCTOR_MONTH_COLLECTION = "prescription_rollup_doctor_month";
+    public static final String MONTH_COLLECTION = "prescription_rollup_month";
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public PrescriptionRollupService(MongoTemplate mongoTemplate,
+                                     @Value("${app.analytics.rollup-batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // ---------------------------------------------------------------------
+    // Incremental updates
+    // ---------------------------------------------------------------------
+
+    /**
+     * Adds prescriptions saved since the last run to the rollups.
+     * Synchronized with rebuild() so the two never count the same document.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup-interval-ms:5000}")
+    public synchronized void applyPending() {
+        try {
+            List<Prescription> batch;
+            do {
+                Query pending = new Query(Criteria.where("outbox.rolledUp").is(false)).limit(batchSize);
+                pending.fields().include("doctorId").include("medication").include("refillCount").include("issuedAt");
+                batch = mongoTemplate.find(pending, Prescription.class);
+
+                Map<Document, long[]> doctorMonth = new HashMap<>();
+                Map<String, long[]> month = new HashMap<>();
+                List<String> claimed = new ArrayList<>();
+                for (Prescription prescription : batch) {
+                    if (!claim(prescription.getId())) continue; // taken by another instance
+                    claimed.add(prescription.getId());
+                    if (prescription.getDoctorId() == null || prescription.getIssuedAt() == null) continue;
+
+                    String monthKey = prescription.getIssuedAt().format(MONTH);
+                    Document key = new Document("doctorId", prescription.getDoctorId())
+                            .append("month", monthKey)
+                            .append("medication", normalize(prescription.getMedication()));
+                    add(doctorMonth.computeIfAbsent(key, k -> new long[3]), prescription.getRefillCount());
+                    add(month.computeIfAbsent(monthKey, k -> new long[3]), prescription.getRefillCount());
+                }
+
+                try {
+                    applyIncrements(doctorMonth, month);
+                } catch (RuntimeException e) {
+                    release(claimed);
+                    throw e;
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void applyIncrements(Map<Document, long[]> doctorMonth, Map<String, long[]> month) {
+        if (!doctorMonth.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DOCTOR_MONTH_COLLECTION);
+            doctorMonth.forEach((key, totals) -> bulk.upsert(
+                    new Query(Criteria.where("_id").is(key)),
+                    increments(totals)
+                            .setOnInsert("doctorId", key.get("doctorId"))
+                            .setOnInsert("month", key.get("month"))
+                            .setOnInsert("medication", key.get("medication"))));
+            bulk.execute();
+        }
+        if (!month.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MONTH_COLLECTION);
+            month.forEach((key, totals) -> bulk.upsert(
+                    new Query(Criteria.where("_id").is(key)),
+                    increments(totals).setOnInsert("month", key)));
+            bulk.execute();
+        }
+    }
+
+    private boolean claim(String id) {
+        Query query = new Query(Criteria.where("_id").is(id).and("outbox.rolledUp").is(false));
+        return mongoTemplate.updateFirst(query, Update.update("outbox.rolledUp", true), Prescription.class)
+                .getModifiedCount() == 1;
+    }
+
+    /**
+     * Hands claimed prescriptions back to the next run after their increments failed.
+     * A failure after some upserts were applied counts those twice on the retry; the
+     * rebuild corrects that, whereas a dropped batch would stay missing until it runs.
+     */
+    private void release(List<String> ids) {
+        if (ids.isEmpty()) return;
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids).and("outbox.rolledUp").is(true)),
+                Update.update("outbox.rolledUp", false), Prescription.class);
+    }
+
+    private static void add(long[] totals, int refillCount) {
+        totals[0] += 1;
+        totals[1] += refillCount;
+        totals[2] += refillCount > 0 ? 1 : 0;
+    }
+
+    private static Update increments(long[] totals) {
+        return new Update().inc("count", totals[0]).inc("refillTotal", totals[1]).inc("withRefills", totals[2]);
+    }
+
+    private static String normalize(String medication) {
+        return medication == null ? "" : medication.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ---------------------------------------------------------------------
+    // Rebuild
+    // ---------------------------------------------------------------------
+
+    /**
+     * Recomputes both rollups from the prescriptions collection. Runs nightly as a
+     * catch-up job and on demand from the admin analytics endpoint. Pending documents
+     * are claimed first and anything saved afterwards is left to the incremental job,
+     * so no document is counted twice.
+     */
+    @Scheduled(cron = "${app.analytics.rebuild-cron:0 30 3 * * *}")
+    public synchronized void rebuild() {
+        mongoTemplate.updateMulti(new Query(Criteria.where("outbox.rolledUp").is(false)),
+                Update.update("outbox.rolledUp", true), Prescription.class);
+
+        String zone = ZoneId.systemDefault().getId();
+        mongoTemplate.aggregate(newAggregation(
+                match(Criteria.where("doctorId").ne(null).and("issuedAt").ne(null)
+                        .and("outbox.rolledUp").ne(false)),
+                project("doctorId", "refillCount")
+                        .and(DateOperators.dateOf("issuedAt")
+                                .withTimezone(DateOperators.Timezone.valueOf(zone))
+                                .toString("%Y-%m")).as("month")
+                        .and(StringOperators.valueOf(StringOperators.valueOf("medication").toLower()).trim())
+                        .as("medication")
+                        .and(ConditionalOperators.when(Criteria.where("refillCount").gt(0)).then(1).otherwise(0))
+                        .as("withRefills"),
+                group("doctorId", "month", "medication")
+                        .count().as("count")
+                        .sum("refillCount").as("refillTotal")
+                        .sum("withRefills").as("withRefills"),
+                // _id stays {doctorId, month, medication}, the same key the incremental upserts use
+                project("count", "refillTotal", "withRefills", "doctorId", "month", "medication"),
+                out(DOCTOR_MONTH_COLLECTION)
+        ), Prescription.class, Document.class);
+
+        mongoTemplate.aggregate(newAggregation(
+                group("month")
+                        .sum("count").as("count")
+                        .sum("refillTotal").as("refillTotal")
+                        .sum("withRefills").as("withRefills"),
+                project("count", "refillTotal", "withRefills", "month"),
+                out(MONTH_COLLECTION)
+        ), DOCTOR_MONTH_COLLECTION, Document.class);
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads (rollup collections only)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Most prescribed medications of a doctor in a month.
+     */
+    public ResponseEntity<Map<String, Object>> getTopMedications(Long doctorId, String month, int limit) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Query query = new Query(Criteria.where("doctorId").is(doctorId).and("month").is(month))
+                    .with(Sort.by(Sort.Direction.DESC, "count"))
+                    .limit(Math.max(1, Math.min(limit, 100)));
+            query.fields().exclude("_id");
+
+            response.put("doctorId", doctorId);
+            response.put("month", month);
+            response.put("medications", mongoTemplate.find(query, Document.class, DOCTOR_MONTH_COLLECTION));
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("message", "Error fetching top medications");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Refill rate per month between two months (inclusive), for all doctors or one.
+     */
+    public ResponseEntity<Map<String, Object>> getRefillTrend(String fromMonth, String toMonth, Long doctorId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<Document> months;
+            if (doctorId == null) {
+                Query query = new Query(Criteria.where("month").gte(fromMonth).lte(toMonth))
+                        .with(Sort.by(Sort.Direction.ASC, "month"));
+                query.fields().exclude("_id");
+                months = mongoTemplate.find(query, Document.class, MONTH_COLLECTION);
+            } else {
+                // One doctor: sum the doctor's medication rows per month (index range, small)
+                months = mongoTemplate.aggregate(newAggregation(
+                        match(Criteria.where("doctorId").is(doctorId).and("month").gte(fromMonth).lte(toMonth)),
+                        group("month")
+                                .sum("count").as("count")
+                                .sum("refillTotal").as("refillTotal")
+                                .sum("withRefills").as("withRefills"),
+                        project("count", "refillTotal", "withRefills", "month").andExclude("_id"),
+                        sort(Sort.Direction.ASC, "month")
+                ), DOCTOR_MONTH_COLLECTION, Document.class).getMappedResults();
+            }
+
+            List<Map<String, Object>> trend = new ArrayList<>();
+            for (Document month : months) {
+                long count = ((Number) month.get("count")).longValue();
+                long refillTotal = ((Number) month.get("refillTotal")).longValue();
+                long withRefills = ((Number) month.get("withRefills")).longValue();
+
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("month", month.get("month"));
+                point.put("prescriptions", count);
+                point.put("refillRate", count == 0 ? 0.0 : (double) withRefills / count);
+                point.put("averageRefills", count == 0 ? 0.0 : (double) refillTotal / count);
+                trend.add(point);
+            }
+
+            response.put("trend", trend);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("message", "Error fetching refill trend");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
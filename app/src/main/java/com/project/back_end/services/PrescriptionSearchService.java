@@ -0,0 +1,93 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Prescription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * PrescriptionSearchService
+ *
+ * Full-text search over medication, doctor notes and dosage, backed by the
+ * "prescription_text" MongoDB text index (see MongoIndexInitializer). Results are
+ * ranked by text score, medication matches weighing most. A doctor only searches the
+ * prescriptions they wrote.
+ *
+ * Paging fetches one extra document to report whether more results exist instead
+ * of counting every match, which would scan the whole posting list for common terms.
+ */
+@Service
+public class PrescriptionSearchService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxPageSize;
+
+    @Autowired
+    public PrescriptionSearchService(MongoTemplate mongoTemplate,
+                                     @Value("${app.prescription.search.max-page-size:50}") int maxPageSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Searches prescriptions by free text. Follows MongoDB $text syntax:
+     * terms are OR-ed, "quoted phrases" must match, -term excludes.
+     *
+     * @param text      the search text
+     * @param doctorId  the searching doctor; only their prescriptions are matched
+     * @param patientId optional patient filter (null for all of the doctor's patients)
+     * @param page      zero-based page number
+     * @param size      page size (capped at the configured maximum)
+     * @return ResponseEntity with ranked prescriptions and a hasMore flag, or error message
+     */
+    public ResponseEntity<Map<String, Object>> search(String text, Long doctorId, Long patientId, int page, int size) {
+        Map<String, Object> response = new HashMap<>();
+        if (text == null || text.isBlank()) {
+            response.put("message", "Search text is required");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        if (page < 0 || size < 1) {
+            response.put("message", "Invalid page or size");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = Math.min(size, maxPageSize);
+
+        try {
+            Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text.trim()))
+                    .sortByScore()
+                    .skip((long) page * pageSize)
+                    .limit(pageSize + 1);
+            query.addCriteria(Criteria.where("doctorId").is(doctorId));
+            if (patientId != null) {
+                query.addCriteria(Criteria.where("patientId").is(patientId));
+            }
+            query.fields().exclude("outbox");
+
+            List<Prescription> results = mongoTemplate.find(query, Prescription.class);
+            boolean hasMore = results.size() > pageSize;
+            if (hasMore) {
+                results = results.subList(0, pageSize);
+            }
+
+            response.put("prescriptions", results);
+            response.put("page", page);
+            response.put("size", pageSize);
+            response.put("hasMore", hasMore);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("message", "An error occurred while searching prescriptions");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.DTO.PrescriptionSummary;
+import com.project.back_end.models.OutboxRecord;
 import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PrescriptionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
 /**
@@ -19,15 +27,27 @@ import java.util.*;
 public class PrescriptionService {
 
     private final PrescriptionRepository prescriptionRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final int maxSummaryIds;
 
     // ✅ Constructor-based dependency injection (recommended best practice)
     @Autowired
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepository,
+                               AppointmentRepository appointmentRepository,
+                               @Value("${app.prescription.max-summary-ids:500}") int maxSummaryIds) {
         this.prescriptionRepository = prescriptionRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.maxSummaryIds = maxSummaryIds;
     }
 
     /**
      * Saves a prescription to the database.
+     * The appointment is marked as prescribed asynchronously: the prescription is
+     * written together with an outbox record in one document, and the
+     * PrescriptionOutboxRelay applies the MySQL update afterwards.
+     * Duplicates are rejected by the unique index on appointmentId, so this is a
+     * single insert with no check-then-act race. The patient and doctor IDs are taken
+     * from the appointment, never from the request body.
      *
      * @param prescription the prescription to be saved
      * @return ResponseEntity with success or error message
@@ -35,20 +55,27 @@ public class PrescriptionService {
     public ResponseEntity<Map<String, String>> savePrescription(Prescription prescription) {
         Map<String, String> response = new HashMap<>();
         try {
-            // ✅ Check if prescription already exists for the same appointment
-            List<Prescription> existingPrescriptions =
-                    prescriptionRepository.findByAppointmentId(prescription.getAppointmentId());
-
-            if (!existingPrescriptions.isEmpty()) {
-                response.put("message", "Prescription already exists for this appointment");
+            AppointmentRef appointment = appointmentRepository.findRefById(prescription.getAppointmentId());
+            if (appointment == null) {
+                response.put("message", "Appointment not found");
                 return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
             }
 
-            // ✅ Save the new prescription
-            prescriptionRepository.save(prescription);
+            // ✅ Insert the new prescription with its outbox record (single document write)
+            prescription.setId(null);
+            prescription.setPatientId(appointment.getPatientId());
+            prescription.setDoctorId(appointment.getDoctorId());
+            prescription.setIssuedAt(LocalDateTime.now());
+            prescription.setOutbox(OutboxRecord.pending());
+            prescriptionRepository.insert(prescription);
             response.put("message", "Prescription saved");
             return new ResponseEntity<>(response, HttpStatus.CREATED);
 
+        } catch (DuplicateKeyException e) {
+            // ✅ Unique index on appointmentId: a prescription already exists for this appointment
+            response.put("message", "Prescription already exists for this appointment");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+
         } catch (Exception e) {
             e.printStackTrace();
             response.put("message", "An error occurred while saving the prescription");
@@ -81,4 +108,66 @@ public class PrescriptionService {
             return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Retrieves prescription summaries for a list of appointments in one MongoDB query.
+     * Only the given doctor's prescriptions are returned; other IDs are simply absent.
+     *
+     * @param doctorId       the requesting doctor's ID
+     * @param appointmentIds the appointment IDs
+     * @return ResponseEntity with summaries keyed by appointment ID, or error message
+     */
+    public ResponseEntity<Map<String, Object>> getPrescriptionSummaries(Long doctorId, Collection<Long> appointmentIds) {
+        Map<String, Object> response = new HashMap<>();
+        if (appointmentIds == null || appointmentIds.isEmpty()) {
+            response.put("summaries", Map.of());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        }
+        if (appointmentIds.size() > maxSummaryIds) {
+            response.put("message", "Too many appointment IDs (max " + maxSummaryIds + ")");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            response.put("summaries", summariesByAppointment(doctorId, appointmentIds));
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("message", "An error occurred while retrieving prescription summaries");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Retrieves prescription summaries for all of a doctor's appointments on a date:
+     * one MySQL query for the appointment IDs, then one MongoDB query.
+     *
+     * @param doctorId the doctor ID
+     * @param date     the appointment date
+     * @return ResponseEntity with summaries keyed by appointment ID, or error message
+     */
+    public ResponseEntity<Map<String, Object>> getPrescriptionSummaries(Long doctorId, LocalDate date) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<Long> appointmentIds = appointmentRepository.findIdsByDoctorIdAndAppointmentTimeBetween(
+                    doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay().minusNanos(1));
+
+            response.put("summaries",
+                    appointmentIds.isEmpty() ? Map.of() : summariesByAppointment(doctorId, appointmentIds));
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("message", "An error occurred while retrieving prescription summaries");
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Map<Long, PrescriptionSummary> summariesByAppointment(Long doctorId, Collection<Long> appointmentIds) {
+        Map<Long, PrescriptionSummary> summaries = new LinkedHashMap<>();
+        for (PrescriptionSummary summary : prescriptionRepository.findByDoctorIdAndAppointmentIdIn(
+                doctorId, appointmentIds, PrescriptionSummary.class)) {
+            summaries.putIfAbsent(summary.getAppointmentId(), summary);
+        }
+        return summaries;
+    }
 }
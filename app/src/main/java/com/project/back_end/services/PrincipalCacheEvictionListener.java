@@ -0,0 +1,57 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * PrincipalCacheEvictionListener
+ *
+ * JPA entity listener registered on Doctor and Patient. Whenever one of them is
+ * updated or deleted, any cached tokens for that user are dropped. Deleting a user
+ * also revokes every token issued to them, since tokens are validated from their
+ * claims and would otherwise stay valid until they expire.
+ */
+@Component
+public class PrincipalCacheEvictionListener {
+
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationList revocationList;
+
+    @Autowired
+    public PrincipalCacheEvictionListener(VerifiedTokenCache tokenCache,
+                                          TokenRevocationList revocationList) {
+        this.tokenCache = tokenCache;
+        this.revocationList = revocationList;
+    }
+
+    @PostUpdate
+    public void evict(Object entity) {
+        String role = roleOf(entity);
+        if (role != null) {
+            tokenCache.evict(role, idOf(entity));
+        }
+    }
+
+    @PostRemove
+    public void revoke(Object entity) {
+        String role = roleOf(entity);
+        if (role != null) {
+            revocationList.revokeUser(role, idOf(entity));
+            tokenCache.evict(role, idOf(entity));
+        }
+    }
+
+    private static String roleOf(Object entity) {
+        if (entity instanceof Doctor) return "doctor";
+        if (entity instanceof Patient) return "patient";
+        return null;
+    }
+
+    private static Long idOf(Object entity) {
+        return entity instanceof Doctor doctor ? doctor.getId() : ((Patient) entity).getId();
+    }
+}
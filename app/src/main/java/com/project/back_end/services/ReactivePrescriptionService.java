@@ -0,0 +1,121 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.models.OutboxRecord;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ReactivePrescriptionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * ReactivePrescriptionService
+ *
+ * Non-blocking version of PrescriptionService. Same rules (one prescription per
+ * appointment, outbox record written with the prescription), but every call returns
+ * a Mono/Flux and no thread waits on MongoDB while the query runs.
+ */
+@Service
+public class ReactivePrescriptionService {
+
+    private final ReactivePrescriptionRepository reactivePrescriptionRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final int prefetch;
+
+    @Autowired
+    public ReactivePrescriptionService(ReactivePrescriptionRepository reactivePrescriptionRepository,
+                                       AppointmentRepository appointmentRepository,
+                                       @Value("${app.prescription.stream-prefetch:64}") int prefetch) {
+        this.reactivePrescriptionRepository = reactivePrescriptionRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Saves a prescription unless one already exists for the same appointment.
+     * A single insert; duplicates are rejected by the unique index on appointmentId.
+     * The appointment lookup is a blocking JPA call, so it runs on the bounded-elastic scheduler.
+     *
+     * @param prescription the prescription to be saved
+     * @return Mono of ResponseEntity with success or error message
+     */
+    public Mono<ResponseEntity<Map<String, String>>> savePrescription(Prescription prescription) {
+        return Mono.fromCallable(() -> Optional.ofNullable(
+                        appointmentRepository.findRefById(prescription.getAppointmentId())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(found -> {
+                    if (found.isEmpty()) {
+                        return Mono.just(message(HttpStatus.BAD_REQUEST, "Appointment not found"));
+                    }
+                    prescription.setId(null);
+                    AppointmentRef appointment = found.get();
+                    prescription.setPatientId(appointment.getPatientId());
+                    prescription.setDoctorId(appointment.getDoctorId());
+                    prescription.setIssuedAt(LocalDateTime.now());
+                    prescription.setOutbox(OutboxRecord.pending());
+                    return reactivePrescriptionRepository.insert(prescription)
+                            .thenReturn(message(HttpStatus.CREATED, "Prescription saved"));
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(message(HttpStatus.BAD_REQUEST,
+                        "Prescription already exists for this appointment")))
+                .onErrorResume(e -> {
+                    e.printStackTrace();
+                    return Mono.just(message(HttpStatus.INTERNAL_SERVER_ERROR,
+                            "An error occurred while saving the prescription"));
+                });
+    }
+
+    /**
+     * Retrieves prescriptions associated with a specific appointment ID.
+     *
+     * @param appointmentId the appointment ID
+     * @return Mono of ResponseEntity with prescription data or error message
+     */
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescription(Long appointmentId) {
+        return reactivePrescriptionRepository.findByAppointmentId(appointmentId)
+                .collectList()
+                .map(prescriptions -> {
+                    Map<String, Object> response = new HashMap<>();
+                    if (prescriptions.isEmpty()) {
+                        response.put("message", "No prescription found for this appointment");
+                        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+                    }
+                    response.put("prescriptions", prescriptions);
+                    return new ResponseEntity<>(response, HttpStatus.OK);
+                })
+                .onErrorResume(e -> {
+                    e.printStackTrace();
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("message", "An error occurred while retrieving the prescription");
+                    return Mono.just(new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR));
+                });
+    }
+
+    /**
+     * Streams the prescriptions of many appointments. The cursor is drained in chunks
+     * of at most `prefetch` documents, driven by how fast the client consumes them.
+     */
+    public Flux<Prescription> streamPrescriptions(Collection<Long> appointmentIds) {
+        if (appointmentIds == null || appointmentIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return reactivePrescriptionRepository.findByAppointmentIdIn(appointmentIds)
+                .limitRate(prefetch);
+    }
+
+    private static ResponseEntity<Map<String, String>> message(HttpStatus status, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", message);
+        return new ResponseEntity<>(response, status);
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AuthPrincipal;
 import com.project.back_end.models.*;
 import com.project.back_end.repo.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Central Service class that manages authentication, validation,
@@ -22,6 +24,7 @@ public class Service {
     private final PatientRepository patientRepository;
     private final DoctorService doctorService;
     private final PatientService patientService;
+    private final PasswordService passwordService;
 
     // ✅ Constructor injection for dependencies
     @Autowired
@@ -30,13 +33,15 @@ public class Service {
                    DoctorRepository doctorRepository,
                    PatientRepository patientRepository,
                    DoctorService doctorService,
-                   PatientService patientService) {
+                   PatientService patientService,
+                   PasswordService passwordService) {
         this.tokenService = tokenService;
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.doctorService = doctorService;
         this.patientService = patientService;
+        this.passwordService = passwordService;
     }
 
     // ---------------------------------------------------------------------
@@ -63,26 +68,45 @@ public class Service {
     // ---------------------------------------------------------------------
     // 2️⃣ Validate Admin Login
     // ---------------------------------------------------------------------
-    public ResponseEntity<Map<String, String>> validateAdmin(Admin receivedAdmin) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> validateAdmin(Admin receivedAdmin) {
         Map<String, String> response = new HashMap<>();
 
         try {
             Admin admin = adminRepository.findByUsername(receivedAdmin.getUsername());
-
-            if (admin == null || !admin.getPassword().equals(receivedAdmin.getPassword())) {
-                response.put("message", "Invalid username or password");
-                return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+            if (admin == null) {
+                // Same BCrypt work as for a known user, so timing does not reveal usernames
+                return passwordService.verifyUnknownUser(receivedAdmin.getPassword())
+                        .thenApply(ignored -> {
+                            response.put("message", "Invalid username or password");
+                            return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+                        })
+                        .exceptionally(e -> PasswordService.loginFailure(e, "Error during admin validation"));
             }
 
-            String token = tokenService.generateToken(admin.getUsername());
-            response.put("token", token);
-            response.put("message", "Login successful");
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            // Password check runs on the bounded login executor
+            String storedPassword = admin.getPassword();
+            return passwordService.verify(receivedAdmin.getPassword(), storedPassword)
+                    .thenApply(matches -> {
+                        if (!matches) {
+                            response.put("message", "Invalid username or password");
+                            return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+                        }
+
+                        if (passwordService.needsRehash(storedPassword)) {
+                            adminRepository.updatePassword(admin.getId(), passwordService.hash(receivedAdmin.getPassword()));
+                        }
+
+                        String token = tokenService.generateToken(admin.getUsername(), "admin", admin.getId());
+                        response.put("token", token);
+                        response.put("message", "Login successful");
+                        return new ResponseEntity<>(response, HttpStatus.OK);
+                    })
+                    .exceptionally(e -> PasswordService.loginFailure(e, "Error during admin validation"));
 
         } catch (Exception e) {
             e.printStackTrace();
             response.put("message", "Error during admin validation");
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR));
         }
     }
 
@@ -110,8 +134,8 @@ public class Service {
         try {
             Optional<Doctor> doctorOpt = doctorRepository.findById(appointment.getDoctorId());
 
-            if (doctorOpt.isEmpty()) {
-                return -1; // Doctor doesn't exist
+            if (doctorOpt.isEmpty() || !doctorOpt.get().isActive()) {
+                return -1; // Doctor doesn't exist (or is being deleted)
             }
 
             Doctor doctor = doctorOpt.get();
@@ -146,51 +170,65 @@ public class Service {
     // ---------------------------------------------------------------------
     // 6️⃣ Validate Patient Login
     // ---------------------------------------------------------------------
-    public ResponseEntity<Map<String, String>> validatePatientLogin(Login login) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> validatePatientLogin(Login login) {
         Map<String, String> response = new HashMap<>();
 
         try {
-            Patient patient = patientRepository.findByEmail(login.getEmail());
-
-            if (patient == null || !patient.getPassword().equals(login.getPassword())) {
-                response.put("message", "Invalid email or password");
-                return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+            Patient patient = patientRepository.findByEmail(login.getIdentifier());
+            if (patient == null) {
+                // Same BCrypt work as for a known user, so timing does not reveal emails
+                return passwordService.verifyUnknownUser(login.getPassword())
+                        .thenApply(ignored -> {
+                            response.put("message", "Invalid email or password");
+                            return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+                        })
+                        .exceptionally(e -> PasswordService.loginFailure(e, "Error during patient login validation"));
             }
 
-            String token = tokenService.generateToken(patient.getEmail());
-            response.put("token", token);
-            response.put("message", "Login successful");
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            // Password check runs on the bounded login executor
+            String storedPassword = patient.getPassword();
+            return passwordService.verify(login.getPassword(), storedPassword)
+                    .thenApply(matches -> {
+                        if (!matches) {
+                            response.put("message", "Invalid email or password");
+                            return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+                        }
+
+                        if (passwordService.needsRehash(storedPassword)) {
+                            patientRepository.updatePassword(patient.getId(), passwordService.hash(login.getPassword()));
+                        }
+
+                        String token = tokenService.generateToken(patient.getEmail(), "patient", patient.getId());
+                        response.put("token", token);
+                        response.put("message", "Login successful");
+                        return new ResponseEntity<>(response, HttpStatus.OK);
+                    })
+                    .exceptionally(e -> PasswordService.loginFailure(e, "Error during patient login validation"));
 
         } catch (Exception e) {
             e.printStackTrace();
             response.put("message", "Error during patient login validation");
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR));
         }
     }
 
     // ---------------------------------------------------------------------
     // 7️⃣ Filter Patient Appointments
     // ---------------------------------------------------------------------
-    public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, String token) {
+    public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, AuthPrincipal principal) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            String email = tokenService.extractEmail(token); // Extract email from token
-            List<Appointment> filteredAppointments = new ArrayList<>();
+            Long patientId = principal.getId(); // Resolved once by the AuthInterceptor
 
             if (condition != null && name != null) {
-                filteredAppointments = patientService.filterByDoctorAndCondition(email, name, condition);
+                return patientService.filterByDoctorAndCondition(condition, name, patientId);
             } else if (condition != null) {
-                filteredAppointments = patientService.filterByCondition(email, condition);
+                return patientService.filterByCondition(condition, patientId);
             } else if (name != null) {
-                filteredAppointments = patientService.filterByDoctor(email, name);
-            } else {
-                filteredAppointments = patientService.getAllAppointments(email);
+                return patientService.filterByDoctor(name, patientId);
             }
-
-            response.put("appointments", filteredAppointments);
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            return patientService.getPatientAppointment(patientId, principal);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,250 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.RevokedToken;
+import com.project.back_end.repo.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TokenRevocationList
+ *
+ * In-memory record of revoked tokens (logout) and revoked users (deletion).
+ * Lookups first consult a Bloom filter, so the common "not revoked" answer costs a
+ * few bit probes; only possible hits fall through to the exact map. Revocations are
+ * persisted in the revoked_tokens table and the whole structure is rebuilt from the
+ * still-relevant rows at startup and after expired rows are pruned.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate requiresNew;
+    private final int expectedEntries;
+
+    // Replaced wholesale on rebuild; individual revocations are added under the lock
+    private volatile Snapshot snapshot;
+    private final Object lock = new Object();
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${auth.revocation.expected-entries:10000}") int expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expectedEntries = expectedEntries;
+        this.snapshot = new Snapshot(expectedEntries);
+    }
+
+    // ---------------------------------------------------------------------
+    // Lookups
+    // ---------------------------------------------------------------------
+
+    /**
+     * Returns true if the token has been logged out, or if its user was revoked
+     * at or after the time the token was issued.
+     */
+    public boolean isRevoked(String role, Long userId, Date issuedAt, String tokenId) {
+        Snapshot current = snapshot;
+
+        if (tokenId != null) {
+            String key = tokenKey(tokenId);
+            if (current.bloom.mightContain(key) && current.revokedAt.containsKey(key)) {
+                return true;
+            }
+        }
+
+        String key = userKey(role, userId);
+        if (!current.bloom.mightContain(key)) return false;
+        Long revokedAt = current.revokedAt.get(key);
+        return revokedAt != null && (issuedAt == null || issuedAt.getTime() <= revokedAt);
+    }
+
+    // ---------------------------------------------------------------------
+    // Revocations
+    // ---------------------------------------------------------------------
+
+    /**
+     * Revokes a single token (logout) until it would have expired anyway.
+     */
+    public void revokeToken(String tokenId, Date tokenExpiry) {
+        LocalDateTime expiresAt = tokenExpiry != null
+                ? LocalDateTime.ofInstant(tokenExpiry.toInstant(), ZoneId.systemDefault())
+                : LocalDateTime.now().plus(TokenService.TOKEN_VALIDITY);
+        revoke(tokenKey(tokenId), expiresAt);
+    }
+
+    /**
+     * Revokes every token issued to a user so far (e.g. the user was deleted).
+     */
+    public void revokeUser(String role, Long userId) {
+        revoke(userKey(role, userId), LocalDateTime.now().plus(TokenService.TOKEN_VALIDITY));
+    }
+
+    private void revoke(String key, LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (lock) {
+            snapshot.add(key, toMillis(now));
+        }
+
+        RevokedToken row = new RevokedToken(key, now, expiresAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Called from inside a transaction (e.g. an entity callback): persist once it commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    persist(row);
+                }
+            });
+        } else {
+            persist(row);
+        }
+    }
+
+    private void persist(RevokedToken row) {
+        try {
+            requiresNew.executeWithoutResult(status -> revokedTokenRepository.save(row));
+        } catch (Exception e) {
+            // The in-memory revocation still applies; it is only lost on restart
+            e.printStackTrace();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Rebuild & pruning
+    // ---------------------------------------------------------------------
+
+    /**
+     * Rebuilds the Bloom filter and exact map from the revocations that can still
+     * affect a live token. A single indexed range query.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (lock) {
+            List<RevokedToken> rows = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+            Snapshot fresh = new Snapshot(Math.max(expectedEntries, rows.size() * 2));
+            for (RevokedToken row : rows) {
+                fresh.add(row.getRevocationKey(), toMillis(row.getRevokedAt()));
+            }
+
+            // Keep recent in-memory revocations whose row may not be committed yet
+            long horizon = System.currentTimeMillis() - TokenService.TOKEN_VALIDITY.toMillis();
+            snapshot.revokedAt.forEach((key, revokedAt) -> {
+                if (revokedAt > horizon) fresh.add(key, revokedAt);
+            });
+            snapshot = fresh;
+        }
+    }
+
+    /**
+     * Drops expired revocations and rebuilds, so the Bloom filter does not fill up over time.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.prune-interval-ms:3600000}")
+    public void prune() {
+        try {
+            revokedTokenRepository.deleteExpired(LocalDateTime.now());
+            rebuild();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "jti:" + tokenId;
+    }
+
+    private static String userKey(String role, Long userId) {
+        return "user:" + role + ":" + userId;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal structures
+    // ---------------------------------------------------------------------
+
+    private static final class Snapshot {
+        private final BloomFilter bloom;
+        private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+        private Snapshot(int expectedEntries) {
+            this.bloom = new BloomFilter(expectedEntries, 0.01);
+        }
+
+        // Exact entry first, so a reader that passes the Bloom check always finds it
+        private void add(String key, long revokedAtMillis) {
+            revokedAt.merge(key, revokedAtMillis, Math::max);
+            bloom.add(key);
+        }
+    }
+
+    /**
+     * Fixed-size Bloom filter over strings, using double hashing on a 64-bit mix
+     * of the key's hash code. Bits are set with atomic ORs so readers never block.
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+
+        private BloomFilter(int expectedEntries, double falsePositiveRate) {
+            int n = Math.max(expectedEntries, 1);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        private void add(String key) {
+            long hash = mix(key.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                int index = bit >>> 6;
+                long current;
+                do {
+                    current = bits.get(index);
+                } while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        private boolean mightContain(String key) {
+            long hash = mix(key.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        // SplitMix64 finalizer: spreads the 32-bit hash code over 64 bits
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
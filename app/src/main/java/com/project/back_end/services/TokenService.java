@@ -1,5 +1,6 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AuthPrincipal;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -13,7 +14,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * TokenService handles JWT generation, extraction, and validation
@@ -22,9 +25,18 @@ import java.util.Date;
 @Component
 public class TokenService {
 
+    /** How long an issued token stays valid. */
+    public static final Duration TOKEN_VALIDITY = Duration.ofDays(7);
+
+    // Claims carried by every token so validation needs no database access
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "uid";
+
     private final AdminRepository adminRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationList revocationList;
 
     // ✅ Secret key from application.properties (jwt.secret)
     @Value("${jwt.secret}")
@@ -33,10 +45,14 @@ public class TokenService {
     // ✅ Constructor Injection for Repositories
     public TokenService(AdminRepository adminRepository,
                         DoctorRepository doctorRepository,
-                        PatientRepository patientRepository) {
+                        PatientRepository patientRepository,
+                        VerifiedTokenCache tokenCache,
+                        TokenRevocationList revocationList) {
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
+        this.tokenCache = tokenCache;
+        this.revocationList = revocationList;
     }
 
     // ---------------------------------------------------------------------
@@ -49,12 +65,19 @@ public class TokenService {
     // ---------------------------------------------------------------------
     // 2️⃣ Generate Token
     // ---------------------------------------------------------------------
-    public String generateToken(String identifier) {
+    /**
+     * Issues a token for the given user. The role and entity ID are signed into the
+     * token, and a random token ID (jti) makes individual tokens revocable on logout.
+     */
+    public String generateToken(String identifier, String role, Long userId) {
         Date now = new Date();
-        Date expiry = new Date(now.getTime() + 7 * 24 * 60 * 60 * 1000); // 7 days validity
+        Date expiry = new Date(now.getTime() + TOKEN_VALIDITY.toMillis()); // 7 days validity
 
         return Jwts.builder()
                 .setSubject(identifier) // subject = user's email or username
+                .setId(UUID.randomUUID().toString())
+                .claim(ROLE_CLAIM, role)
+                .claim(USER_ID_CLAIM, userId)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(getSigningKey(), Jwts.SIG.HS256)
@@ -82,29 +105,103 @@ public class TokenService {
     // 4️⃣ Validate Token
     // ---------------------------------------------------------------------
     public boolean validateToken(String token, String userType) {
-        try {
-            String identifier = extractIdentifier(token);
-            if (identifier == null) return false;
-
-            switch (userType.toLowerCase()) {
-                case "admin":
-                    Admin admin = adminRepository.findByUsername(identifier);
-                    return admin != null;
-
-                case "doctor":
-                    Doctor doctor = doctorRepository.findByEmail(identifier);
-                    return doctor != null;
+        return resolvePrincipal(token, userType) != null;
+    }
 
-                case "patient":
-                    Patient patient = patientRepository.findByEmail(identifier);
-                    return patient != null;
+    // ---------------------------------------------------------------------
+    // 5️⃣ Resolve Principal
+    // ---------------------------------------------------------------------
+    /**
+     * Verifies the token for the given role and returns the matching principal,
+     * or null if the token is invalid, expired, revoked, or issued for another role.
+     * Role-bearing tokens are validated from their claims alone; tokens issued before
+     * those claims existed fall back to a repository lookup. Verified principals are
+     * cached, so repeated calls with the same token skip the signature check too.
+     */
+    public AuthPrincipal resolvePrincipal(String token, String userType) {
+        if (token == null || userType == null) return null;
+        String role = userType.toLowerCase();
+
+        AuthPrincipal cached = tokenCache.get(token, role);
+        if (cached != null) return cached;
 
-                default:
-                    return false;
+        try {
+            Claims claims = parseClaims(token);
+
+            String identifier = claims.getSubject();
+            if (identifier == null) return null;
+
+            Long id;
+            String tokenRole = claims.get(ROLE_CLAIM, String.class);
+            if (tokenRole != null) {
+                if (!tokenRole.equals(role)) return null;
+                id = claims.get(USER_ID_CLAIM, Long.class);
+                if (id == null) return null;
+                if (revocationList.isRevoked(role, id, claims.getIssuedAt(), claims.getId())) return null;
+            } else {
+                // Legacy token without role claims: the subject's table tells us the role
+                id = findUserId(identifier, role);
+                if (id == null) return null;
             }
+
+            AuthPrincipal principal = new AuthPrincipal(id, identifier, role);
+            tokenCache.put(token, principal, claims.getExpiration());
+            return principal;
+        } catch (JwtException e) {
+            // Invalid or expired token
+            return null;
         } catch (Exception e) {
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 6️⃣ Revoke Token (Logout)
+    // ---------------------------------------------------------------------
+    /**
+     * Revokes a single token until it expires and drops it from the cache.
+     *
+     * @return true if the token was valid and is now revoked
+     */
+    public boolean revokeToken(String token) {
+        try {
+            Claims claims = parseClaims(token);
+            String role = claims.get(ROLE_CLAIM, String.class);
+            if (role == null || claims.getId() == null) return false;
+
+            revocationList.revokeToken(claims.getId(), claims.getExpiration());
+            tokenCache.evictToken(token, role);
+            return true;
+        } catch (JwtException e) {
             return false;
         }
     }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(getSigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private Long findUserId(String identifier, String role) {
+        switch (role) {
+            case "admin":
+                Admin admin = adminRepository.findByUsername(identifier);
+                return admin != null ? admin.getId() : null;
+
+            case "doctor":
+                Doctor doctor = doctorRepository.findByEmail(identifier);
+                return doctor != null && doctor.isActive() ? doctor.getId() : null;
+
+            case "patient":
+                Patient patient = patientRepository.findByEmail(identifier);
+                return patient != null ? patient.getId() : null;
+
+            default:
+                return null;
+        }
+    }
 }
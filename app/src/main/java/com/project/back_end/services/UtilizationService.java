@@ -0,0 +1,372 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.AvailabilityTemplate;
+import com.project.back_end.models.TimeOff;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.AvailabilityTemplateRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.TimeOffRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * UtilizationService
+ *
+ * Month-by-hour utilization heatmaps (booked slots ÷ offered slots) per specialty and
+ * per doctor, for operations.
+ *
+ * Booked slots come from one streaming pass over the (doctor ID, appointment time) rows
+ * of the month, live and archived, counted straight into int[day * 24 + hour] arrays;
+ * no appointment entity is ever loaded. Offered slots come from the doctor's weekly
+ * templates (minus time off) or, for doctors without templates, from availableTimes
+ * repeated on every day. Expanding offered slots and folding both into the specialty
+ * totals is split across doctors on the analytics fork/join pool.
+ *
+ * A slot or appointment counts towards the hour it starts in.
+ */
+@Service
+public class UtilizationService {
+
+    private static final int HOURS = 24;
+    // Doctors per fork/join leaf task
+    private static final int LEAF_SIZE = 64;
+    private static final String UNSPECIFIED = "Unspecified";
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AvailabilityTemplateRepository templateRepository;
+    private final TimeOffRepository timeOffRepository;
+    private final ForkJoinPool analyticsPool;
+    private final Timer timer;
+
+    @Autowired
+    public UtilizationService(DoctorRepository doctorRepository,
+                              AppointmentRepository appointmentRepository,
+                              ArchivedAppointmentRepository archivedAppointmentRepository,
+                              AvailabilityTemplateRepository templateRepository,
+                              TimeOffRepository timeOffRepository,
+                              @Qualifier("analyticsPool") ForkJoinPool analyticsPool,
+                              MeterRegistry registry) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.templateRepository = templateRepository;
+        this.timeOffRepository = timeOffRepository;
+        this.analyticsPool = analyticsPool;
+        this.timer = Timer.builder("analytics.utilization")
+                .description("Time to compute a utilization heatmap")
+                .register(registry);
+    }
+
+    /**
+     * Utilization heatmaps of a month.
+     *
+     * @param month     the month
+     * @param specialty only doctors of this specialty (optional)
+     * @param doctorId  only this doctor (optional); their own heatmap is included
+     * @return ResponseEntity with per-specialty heatmaps and per-doctor totals
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getHeatmap(YearMonth month, String specialty, Long doctorId) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Context context = load(month, specialty, doctorId);
+            Totals totals = analyticsPool.invoke(new DoctorRange(context, 0, context.ids.length));
+            return ResponseEntity.ok(toResponse(context, totals));
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Loading (one query per input, one streaming pass per appointment table)
+    // ---------------------------------------------------------------------
+
+    private Context load(YearMonth month, String specialty, Long doctorId) {
+        List<Object[]> doctors = new ArrayList<>();
+        for (Object[] row : doctorRepository.findActiveSummaries()) {
+            if (doctorId != null && !doctorId.equals(row[0])) continue;
+            if (specialty != null && !specialty.equalsIgnoreCase((String) row[2])) continue;
+            doctors.add(row);
+        }
+
+        Context context = new Context(month, doctors.size(), doctorId != null);
+        Map<Long, Integer> index = new HashMap<>(doctors.size() * 2);
+        for (int i = 0; i < doctors.size(); i++) {
+            Object[] row = doctors.get(i);
+            context.ids[i] = (Long) row[0];
+            context.names[i] = (String) row[1];
+            context.specialties[i] = row[2] != null ? (String) row[2] : UNSPECIFIED;
+            index.put(context.ids[i], i);
+        }
+
+        for (Object[] row : doctorRepository.findActiveAvailableTimes()) {
+            Integer i = index.get((Long) row[0]);
+            if (i != null) context.availableTimes[i].add((String) row[1]);
+        }
+        for (AvailabilityTemplate template : templateRepository.findApplicableBetween(context.first, context.last)) {
+            Integer i = index.get(template.getDoctorId());
+            if (i != null) context.templates[i].add(template);
+        }
+        for (TimeOff timeOff : timeOffRepository.findByDateBetween(context.first, context.last)) {
+            Integer i = index.get(timeOff.getDoctorId());
+            if (i != null) context.timeOff[i].add(timeOff);
+        }
+
+        LocalDateTime from = context.first.atStartOfDay();
+        LocalDateTime to = context.last.plusDays(1).atStartOfDay();
+        try (Stream<Object[]> rows = appointmentRepository.streamBookedTimes(from, to)) {
+            rows.forEach(row -> context.countBooking(index, row));
+        }
+        try (Stream<Object[]> rows = archivedAppointmentRepository.streamBookedTimes(from, to)) {
+            rows.forEach(row -> context.countBooking(index, row));
+        }
+        return context;
+    }
+
+    // ---------------------------------------------------------------------
+    // Fork/join across doctors
+    // ---------------------------------------------------------------------
+
+    /** Computes offered slots for doctors [from, to) and sums them up per specialty. */
+    private static final class DoctorRange extends RecursiveTask<Totals> {
+        private final Context context;
+        private final int from;
+        private final int to;
+
+        private DoctorRange(Context context, int from, int to) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                DoctorRange left = new DoctorRange(context, from, mid);
+                left.fork();
+                Totals right = new DoctorRange(context, mid, to).compute();
+                return left.join().merge(right);
+            }
+
+            Totals totals = new Totals(context.cells);
+            for (int i = from; i < to; i++) {
+                int[] offered = context.offered(i);
+                int[] booked = context.booked[i];
+                long[] offeredSum = totals.offered.computeIfAbsent(context.specialties[i], s -> new long[context.cells]);
+                long[] bookedSum = totals.booked.computeIfAbsent(context.specialties[i], s -> new long[context.cells]);
+                totals.doctors.merge(context.specialties[i], 1, Integer::sum);
+
+                long offeredTotal = 0;
+                long bookedTotal = 0;
+                for (int cell = 0; cell < context.cells; cell++) {
+                    offeredSum[cell] += offered[cell];
+                    offeredTotal += offered[cell];
+                    if (booked != null) {
+                        bookedSum[cell] += booked[cell];
+                        bookedTotal += booked[cell];
+                    }
+                }
+                // Each index is written by exactly one leaf task
+                context.offeredTotal[i] = offeredTotal;
+                context.bookedTotal[i] = bookedTotal;
+                if (context.doctorOffered != null) context.doctorOffered[i] = offered;
+            }
+            return totals;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Response
+    // ---------------------------------------------------------------------
+
+    private static Map<String, Object> toResponse(Context context, Totals totals) {
+        List<Map<String, Object>> specialties = new ArrayList<>();
+        for (String name : new TreeSet<>(totals.offered.keySet())) {
+            long[] offered = totals.offered.get(name);
+            long[] booked = totals.booked.get(name);
+            long offeredTotal = Arrays.stream(offered).sum();
+            long bookedTotal = Arrays.stream(booked).sum();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("specialty", name);
+            entry.put("doctors", totals.doctors.get(name));
+            entry.put("offered", offeredTotal);
+            entry.put("booked", bookedTotal);
+            entry.put("utilization", ratio(bookedTotal, offeredTotal));
+            entry.put("heatmap", heatmap(context, cell -> booked[cell], cell -> offered[cell]));
+            specialties.add(entry);
+        }
+
+        List<Map<String, Object>> doctors = new ArrayList<>(context.ids.length);
+        for (int i = 0; i < context.ids.length; i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("doctorId", context.ids[i]);
+            entry.put("name", context.names[i]);
+            entry.put("specialty", context.specialties[i]);
+            entry.put("offered", context.offeredTotal[i]);
+            entry.put("booked", context.bookedTotal[i]);
+            entry.put("utilization", ratio(context.bookedTotal[i], context.offeredTotal[i]));
+            if (context.doctorOffered != null) {
+                int[] offered = context.doctorOffered[i];
+                int[] booked = context.booked[i];
+                entry.put("heatmap", heatmap(context, cell -> booked == null ? 0 : booked[cell], cell -> offered[cell]));
+            }
+            doctors.add(entry);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("month", context.month.toString());
+        response.put("days", context.days);
+        response.put("hours", HOURS);
+        response.put("specialties", specialties);
+        response.put("doctors", doctors);
+        return response;
+    }
+
+    /** Rows are days of the month, columns hours of the day; null where nothing was offered. */
+    private static List<List<Double>> heatmap(Context context, IntToLongFunction booked, IntToLongFunction offered) {
+        List<List<Double>> rows = new ArrayList<>(context.days);
+        for (int day = 0; day < context.days; day++) {
+            List<Double> row = new ArrayList<>(HOURS);
+            for (int hour = 0; hour < HOURS; hour++) {
+                int cell = day * HOURS + hour;
+                row.add(ratio(booked.applyAsLong(cell), offered.applyAsLong(cell)));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Double ratio(long booked, long offered) {
+        return offered == 0 ? null : Math.round(booked * 1000.0 / offered) / 1000.0;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal structures
+    // ---------------------------------------------------------------------
+
+    /** Inputs indexed by doctor position, plus the per-doctor outputs of the leaf tasks. */
+    private static final class Context {
+        private final YearMonth month;
+        private final LocalDate first;
+        private final LocalDate last;
+        private final int days;
+        private final int cells;
+
+        private final Long[] ids;
+        private final String[] names;
+        private final String[] specialties;
+        private final List<String>[] availableTimes;
+        private final List<AvailabilityTemplate>[] templates;
+        private final List<TimeOff>[] timeOff;
+        // Allocated on a doctor's first booking of the month
+        private final int[][] booked;
+
+        private final long[] offeredTotal;
+        private final long[] bookedTotal;
+        // Only kept when per-doctor heatmaps are returned
+        private final int[][] doctorOffered;
+
+        @SuppressWarnings("unchecked")
+        private Context(YearMonth month, int doctors, boolean withDoctorHeatmaps) {
+            this.month = month;
+            this.first = month.atDay(1);
+            this.last = month.atEndOfMonth();
+            this.days = month.lengthOfMonth();
+            this.cells = days * HOURS;
+            this.ids = new Long[doctors];
+            this.names = new String[doctors];
+            this.specialties = new String[doctors];
+            this.availableTimes = new List[doctors];
+            this.templates = new List[doctors];
+            this.timeOff = new List[doctors];
+            for (int i = 0; i < doctors; i++) {
+                availableTimes[i] = new ArrayList<>();
+                templates[i] = new ArrayList<>();
+                timeOff[i] = new ArrayList<>();
+            }
+            this.booked = new int[doctors][];
+            this.offeredTotal = new long[doctors];
+            this.bookedTotal = new long[doctors];
+            this.doctorOffered = withDoctorHeatmaps ? new int[doctors][] : null;
+        }
+
+        private void countBooking(Map<Long, Integer> index, Object[] row) {
+            Integer i = index.get((Long) row[0]);
+            if (i == null) return;
+            LocalDateTime time = (LocalDateTime) row[1];
+            if (booked[i] == null) booked[i] = new int[cells];
+            booked[i][(time.getDayOfMonth() - 1) * HOURS + time.getHour()]++;
+        }
+
+        /** Offered slots of doctor i per (day, hour) cell. */
+        private int[] offered(int i) {
+            int[] offered = new int[cells];
+            if (!templates[i].isEmpty()) {
+                for (int day = 0; day < days; day++) {
+                    for (String slot : AvailabilitySlots.forDate(first.plusDays(day), templates[i], timeOff[i])) {
+                        offered[day * HOURS + hour(slot)]++;
+                    }
+                }
+                return offered;
+            }
+
+            // No templates: the same availableTimes every day
+            int[] perHour = new int[HOURS];
+            for (String slot : availableTimes[i]) {
+                if (AvailabilitySlots.isValid(slot)) perHour[hour(slot)]++;
+            }
+            for (int day = 0; day < days; day++) {
+                System.arraycopy(perHour, 0, offered, day * HOURS, HOURS);
+            }
+            return offered;
+        }
+
+        private static int hour(String slot) {
+            return (slot.charAt(0) - '0') * 10 + (slot.charAt(1) - '0');
+        }
+    }
+
+    /** Per-specialty sums over (day, hour) cells; merged pairwise up the fork/join tree. */
+    private static final class Totals {
+        private final Map<String, long[]> offered = new HashMap<>();
+        private final Map<String, long[]> booked = new HashMap<>();
+        private final Map<String, Integer> doctors = new HashMap<>();
+        private final int cells;
+
+        private Totals(int cells) {
+            this.cells = cells;
+        }
+
+        private Totals merge(Totals other) {
+            add(offered, other.offered);
+            add(booked, other.booked);
+            other.doctors.forEach((name, count) -> doctors.merge(name, count, Integer::sum));
+            return this;
+        }
+
+        private void add(Map<String, long[]> into, Map<String, long[]> from) {
+            from.forEach((name, values) -> {
+                long[] target = into.computeIfAbsent(name, s -> new long[cells]);
+                for (int cell = 0; cell < cells; cell++) target[cell] += values[cell];
+            });
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * VerifiedTokenCache
+ *
+ * Bounded, TTL-based cache of principals whose tokens have already been verified.
+ * Entries are keyed by a SHA-256 digest of the role and token (the raw token is never
+ * stored) and expire after the configured TTL or when the token itself expires,
+ * whichever comes first. Once the cache is full the oldest entries are dropped.
+ *
+ * Lock-free: lookups are plain ConcurrentHashMap reads, so authenticated requests never
+ * contend with each other (or pin a virtual thread's carrier). A "role:id" index of each
+ * user's digests lets evict() drop one user's tokens without scanning the cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> keysByUser = new ConcurrentHashMap<>();
+    // Insertion order for size-bound eviction; may hold replaced or removed entries, skipped in trim()
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public VerifiedTokenCache(@Value("${auth.token-cache.max-entries:10000}") int maxEntries,
+                              @Value("${auth.token-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Returns the cached principal for a token verified against the given role,
+     * or null if there is no live entry.
+     */
+    public AuthPrincipal get(String token, String role) {
+        Entry entry = entries.get(key(token, role));
+        if (entry == null) return null;
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            remove(entry);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    /**
+     * Caches a verified principal. The entry never outlives the token's own expiry.
+     */
+    public void put(String token, AuthPrincipal principal, Date tokenExpiry) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (tokenExpiry != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiry.getTime());
+        }
+        Entry entry = new Entry(key(token, principal.getRole()), principal, expiresAt);
+
+        // Indexed inside compute() so a concurrent remove() cannot drop the set being added to
+        keysByUser.compute(userKey(principal.getRole(), principal.getId()), (k, keys) -> {
+            if (keys == null) keys = ConcurrentHashMap.newKeySet();
+            keys.add(entry.key);
+            return keys;
+        });
+        entries.put(entry.key, entry);
+        insertionOrder.add(entry);
+
+        trim(now);
+    }
+
+    /**
+     * Drops every cached token that belongs to the given user.
+     */
+    public void evict(String role, Long id) {
+        Set<String> keys = keysByUser.remove(userKey(role, id));
+        if (keys == null) return;
+        for (String key : keys) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drops a single token, e.g. after logout.
+     */
+    public void evictToken(String token, String role) {
+        Entry entry = entries.get(key(token, role));
+        if (entry != null) remove(entry);
+    }
+
+    public void clear() {
+        entries.clear();
+        keysByUser.clear();
+        insertionOrder.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops the oldest entries while the cache is over its limit or the oldest has expired.
+     */
+    private void trim(long now) {
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null) {
+            boolean stale = entries.get(oldest.key) != oldest;
+            if (!stale && entries.size() <= maxEntries && oldest.expiresAt > now) return;
+            if (insertionOrder.remove(oldest) && !stale) remove(oldest);
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (!entries.remove(entry.key, entry)) return;
+        keysByUser.computeIfPresent(userKey(entry.principal.getRole(), entry.principal.getId()), (k, keys) -> {
+            keys.remove(entry.key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static String userKey(String role, Long id) {
+        return role + ":" + id;
+    }
+
+    private static String key(String token, String role) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(role.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            digest.update(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final AuthPrincipal principal;
+        private final long expiresAt;
+
+        private Entry(String key, AuthPrincipal principal, long expiresAt) {
+            this.key = key;
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 // patientRows.js
-export function createPatientRow(patient, appointmentId, doctorId) {
+export function createPatientRow(patient, appointmentId, doctorId, prescription) {
   const tr = document.createElement("tr");
   console.log("CreatePatientRow :: ", doctorId)
   tr.innerHTML = `
@@ -10,6 +10,13 @@ export function createPatientRow(patient, appointmentId, doctorId) {
       <td><img src="../assets/images/addPrescriptionIcon/addPrescription.png" alt="addPrescriptionIcon" class="prescription-btn" data-id="${patient.id}"></img></td>
     `;
 
+  // Already prescribed: show what was prescribed instead of inviting a duplicate
+  if (prescription) {
+    const btn = tr.querySelector(".prescription-btn");
+    btn.style.opacity = "0.4";
+    btn.title = `Prescribed: ${prescription.medication} (${prescription.dosage})`;
+  }
+
   // Attach event listeners
   tr.querySelector(".patient-id").addEventListener("click", () => {
     window.location.href = `/pages/patientRecord.html?id=${patient.id}&doctorId=${doctorId}`;
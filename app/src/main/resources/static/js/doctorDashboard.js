@@ -5,6 +5,7 @@
 
 // Import required modules
 import { getAllAppointments } from "./services/appointmentRecordService.js";
+import { getPrescriptionSummaries } from "./services/prescriptionServices.js";
 import { createPatientRow } from "./components/patientRows.js";
 
 // ----------------------------
@@ -48,8 +49,11 @@ async function loadAppointments() {
     // Clear the table first
     patientTableBody.innerHTML = "";
 
-    // Fetch appointment data
-    const appointments = await getAllAppointments(selectedDate, patientName, token);
+    // Fetch appointment data and the day's prescription summaries in parallel
+    const [appointments, prescriptions] = await Promise.all([
+      getAllAppointments(selectedDate, patientName, token),
+      getPrescriptionSummaries(selectedDate, token)
+    ]);
 
     // If no appointments found
     if (!appointments || appointments.length === 0) {
@@ -64,7 +68,7 @@ async function loadAppointments() {
 
     // Render appointment rows
     appointments.forEach((appointment) => {
-      const row = createPatientRow(appointment);
+      const row = createPatientRow(appointment, appointment.id, appointment.doctorId, prescriptions[appointment.id]);
       patientTableBody.appendChild(row);
     });
 
@@ -1,5 +1,5 @@
 // patientAppointment.js
-import { getPatientAppointments, getPatientData, filterAppointments } from "./services/patientServices.js";
+import { getPatientDashboard, filterAppointments } from "./services/patientServices.js";
 
 const tableBody = document.getElementById("patientTableBody");
 const token = localStorage.getItem("token");
@@ -14,12 +14,14 @@ async function initializePage() {
   try {
     if (!token) throw new Error("No token found");
 
-    const patient = await getPatientData(token);
-    if (!patient) throw new Error("Failed to fetch patient details");
+    // One round trip for details and appointments
+    const dashboard = await getPatientDashboard(token);
+    if (!dashboard || !dashboard.patient) throw new Error("Failed to fetch patient details");
+    if (dashboard.errors) console.warn("Partial dashboard:", dashboard.errors);
 
-    patientId = Number(patient.id);
+    patientId = Number(dashboard.patient.id);
 
-    const appointmentData = await getPatientAppointments(patientId, token, "patient") || [];
+    const appointmentData = dashboard.appointments || [];
     allAppointments = appointmentData.filter(app => app.patientId === patientId);
 
     renderAppointments(allAppointments);
@@ -44,7 +44,9 @@ export async function patientLogin(data) {
 // For getting patient data (name ,id , etc ). Used in booking appointments
 export async function getPatientData(token) {
   try {
-    const response = await fetch(`${PATIENT_API}/${token}`);
+    const response = await fetch(`${PATIENT_API}`, {
+      headers: { "Authorization": `Bearer ${token}` }
+    });
     const data = await response.json();
     if (response.ok) return data.patient;
     return null;
@@ -71,12 +73,29 @@ export async function getPatientAppointments(id, token, user) {
   }
 }
 
+// Patient details, appointments and prescriptions in a single request.
+// Sources that timed out on the server are listed in data.errors.
+export async function getPatientDashboard(token) {
+  try {
+    const response = await fetch(`${PATIENT_API}/dashboard`, {
+      headers: { "Authorization": `Bearer ${token}` }
+    });
+    const data = await response.json();
+    if (response.ok) return data;
+    return null;
+  } catch (error) {
+    console.error("Error fetching patient dashboard:", error);
+    return null;
+  }
+}
+
 export async function filterAppointments(condition, name, token) {
   try {
-    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}/${token}`, {
+    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}`, {
       method: "GET",
       headers: {
         "Content-Type": "application/json",
+        "Authorization": `Bearer ${token}`
       },
     });
 
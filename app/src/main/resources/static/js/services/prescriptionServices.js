@@ -44,3 +44,19 @@ export async function getPrescription(appointmentId, token) {
     throw error;
   }
 }
+
+// Prescription summaries for all of the logged-in doctor's appointments on a date,
+// keyed by appointment ID. One request (and one database query) for the whole day.
+export async function getPrescriptionSummaries(date, token) {
+  try {
+    const response = await fetch(`${PRESCRITION_API}/summaries/${date}`, {
+      headers: { "Authorization": `Bearer ${token}` }
+    });
+    if (!response.ok) return {};
+    const result = await response.json();
+    return result.summaries || {};
+  } catch (error) {
+    console.error("Error :: getPrescriptionSummaries ::", error);
+    return {};
+  }
+}
@@ -0,0 +1,145 @@
+package com.project.back_end.DTO;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Doctor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serializes list payloads the way the JSON message converter does (Boot's mapper
+ * defaults: ISO dates, views exclude unannotated properties) and compares the sizes of
+ * the full and summary views of the same 200 rows.
+ */
+class ViewsTests {
+
+	private static final int ROWS = 200;
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@Test
+	void summaryAppointmentsDropDerivedFieldsAndContactDetails() throws Exception {
+		byte[] full = write(Map.of("appointments", appointments()), null);
+		byte[] summary = write(Map.of("appointments", appointments()), Views.Summary.class);
+
+		JsonNode fullRow = mapper.readTree(full).get("appointments").get(0);
+		JsonNode summaryRow = mapper.readTree(summary).get("appointments").get(0);
+		assertTrue(fullRow.has("appointmentDate") && fullRow.has("endTime") && fullRow.has("patientEmail"));
+		assertEquals(Set.of("id", "doctorId", "doctorName", "patientId", "patientName", "appointmentTime", "status"),
+				fieldNames(summaryRow));
+		assertEquals("2025-03-01T09:00:00", summaryRow.get("appointmentTime").asText());
+
+		assertSmaller(summary, full, 0.5);
+	}
+
+	@Test
+	void summaryDoctorsKeepListingFieldsOnly() throws Exception {
+		byte[] full = write(Map.of("doctors", doctors()), null);
+		byte[] summary = write(Map.of("doctors", doctors()), Views.Summary.class);
+
+		JsonNode fullRow = mapper.readTree(full).get("doctors").get(0);
+		JsonNode summaryRow = mapper.readTree(summary).get("doctors").get(0);
+		assertTrue(fullRow.has("email") && fullRow.has("clinicAddress"));
+		assertFalse(fullRow.has("password"));
+		assertEquals(Set.of("id", "name", "specialty", "availableTimes"), fieldNames(summaryRow));
+		assertEquals(4, summaryRow.get("availableTimes").size());
+
+		assertSmaller(summary, full, 0.6);
+	}
+
+	@Test
+	void resolvesViewParameter() {
+		assertNull(Views.resolve(null));
+		assertNull(Views.resolve("full"));
+		assertEquals(Views.Summary.class, Views.resolve("SUMMARY"));
+		assertThrows(IllegalArgumentException.class, () -> Views.resolve("everything"));
+	}
+
+	@Test
+	void applyWrapsBodyOnlyForAView() {
+		ResponseEntity<Map<String, Object>> response = ResponseEntity.ok(Map.of("doctors", List.of()));
+		assertSame(response, Views.apply(response, null));
+
+		ResponseEntity<?> wrapped = Views.apply(response, Views.Summary.class);
+		MappingJacksonValue body = (MappingJacksonValue) wrapped.getBody();
+		assertEquals(Views.Summary.class, body.getSerializationView());
+		assertSame(response.getBody(), body.getValue());
+		assertEquals(response.getStatusCode(), wrapped.getStatusCode());
+	}
+
+	// ---------------------------------------------------------------------
+
+	private byte[] write(Object body, Class<?> view) throws IOException {
+		return view == null ? mapper.writeValueAsBytes(body) : mapper.writerWithView(view).writeValueAsBytes(body);
+	}
+
+	/** Summary must be at most the given fraction of full, both raw and gzipped. */
+	private static void assertSmaller(byte[] summary, byte[] full, double fraction) throws IOException {
+		assertTrue(summary.length <= full.length * fraction,
+				"summary " + summary.length + " B vs full " + full.length + " B");
+		assertTrue(gzip(summary) < gzip(full),
+				"gzipped summary " + gzip(summary) + " B vs full " + gzip(full) + " B");
+	}
+
+	private static int gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(content);
+		}
+		return bytes.size();
+	}
+
+	private static Set<String> fieldNames(JsonNode node) {
+		Set<String> names = new LinkedHashSet<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+
+	private static List<AppointmentDTO> appointments() {
+		List<AppointmentDTO> appointments = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			appointments.add(new AppointmentDTO((long) i + 1, (long) (i % 40) + 1, "Dr. Doctor Number " + (i % 40),
+					7L, "Patient Seven", "patient.seven@example.com", "5551234567",
+					"42 Example Street, Springfield", LocalDateTime.of(2025, 3, 1, 9, 0).plusDays(i), i % 2));
+		}
+		return appointments;
+	}
+
+	private static List<Doctor> doctors() {
+		List<Doctor> doctors = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			Doctor doctor = new Doctor();
+			doctor.setId((long) i + 1);
+			doctor.setName("Dr. Doctor Number " + i);
+			doctor.setSpecialty(i % 2 == 0 ? "Cardiology" : "Dermatology");
+			doctor.setYearsOfExperience(10);
+			doctor.setClinicAddress("100 Clinic Road, Suite " + i + ", Springfield");
+			doctor.setRating(4.5);
+			doctor.setEmail("doctor" + i + "@clinic.example.com");
+			doctor.setPassword("$2a$10$hashedpasswordvalue");
+			doctor.setPhone(String.format("5550000%03d", i));
+			doctor.setAvailableTimes(new LinkedHashSet<>(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00", "14:00-15:00")));
+			doctors.add(doctor);
+		}
+		return doctors;
+	}
+}
@@ -0,0 +1,108 @@
+package com.project.back_end.config;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two embedded H2 databases stand in for the primary and the replica; each holds a
+ * single row naming itself, so every query shows where it was routed.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+	private EmbeddedDatabase primary;
+	private EmbeddedDatabase replica;
+
+	@BeforeEach
+	void setUp() {
+		primary = database("primary");
+		replica = database("replica");
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		DataSource routed = ReadWriteRoutingDataSource.create(primary, replica, new ReadYourWritesGuard(5000));
+		assertEquals("replica", read(routed, true));
+	}
+
+	@Test
+	void readWriteTransactionsAndPlainAccessGoToPrimary() {
+		DataSource routed = ReadWriteRoutingDataSource.create(primary, replica, new ReadYourWritesGuard(5000));
+		assertEquals("primary", read(routed, false));
+		assertEquals("primary", new JdbcTemplate(routed).queryForObject("SELECT name FROM node", String.class));
+	}
+
+	@Test
+	void readsRightAfterAWriteStayOnPrimaryForThatUser() {
+		DataSource routed = ReadWriteRoutingDataSource.create(primary, replica, new ReadYourWritesGuard(5000));
+
+		actAs(new AuthPrincipal(7L, "patient@example.com", "patient"));
+		write(routed);
+		assertEquals("primary", read(routed, true));
+
+		actAs(new AuthPrincipal(8L, "other@example.com", "patient"));
+		assertEquals("replica", read(routed, true));
+	}
+
+	@Test
+	void pinExpiresAfterTheWindow() {
+		DataSource routed = ReadWriteRoutingDataSource.create(primary, replica, new ReadYourWritesGuard(0));
+
+		actAs(new AuthPrincipal(7L, "patient@example.com", "patient"));
+		write(routed);
+		assertEquals("replica", read(routed, true));
+	}
+
+	// -------------------------------------------------------------------------
+
+	private static EmbeddedDatabase database(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		JdbcTemplate jdbc = new JdbcTemplate(database);
+		jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+		jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+		return database;
+	}
+
+	private static String read(DataSource routed, boolean readOnly) {
+		TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routed));
+		transaction.setReadOnly(readOnly);
+		return transaction.execute(status ->
+				new JdbcTemplate(routed).queryForObject("SELECT name FROM node", String.class));
+	}
+
+	private static void write(DataSource routed) {
+		TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routed));
+		transaction.executeWithoutResult(status ->
+				new JdbcTemplate(routed).update("UPDATE node SET name = name"));
+	}
+
+	private static void actAs(AuthPrincipal principal) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(AuthPrincipal.REQUEST_ATTRIBUTE, principal);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+}
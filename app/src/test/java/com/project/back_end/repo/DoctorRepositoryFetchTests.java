@@ -0,0 +1,91 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.TokenRevocationList;
+import com.project.back_end.services.VerifiedTokenCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing doctors must not issue one query per doctor for their availableTimes.
+ * Statements are counted with Hibernate statistics against an embedded H2 database.
+ */
+@DataJpaTest
+class DoctorRepositoryFetchTests {
+
+	private static final int DOCTORS = 5;
+
+	// Required by the Doctor entity listener
+	@MockitoBean
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@MockitoBean
+	private TokenRevocationList tokenRevocationList;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < DOCTORS; i++) {
+			entityManager.persist(new Doctor(null, "Doctor " + i, "Cardiologist", 10, "1 Main Street",
+					4.5, "doctor" + i + "@example.com", "secret123", "555000000" + i,
+					new ArrayList<>(List.of("09:00-10:00", "14:00-15:00"))));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void listingQueriesLoadSlotsInTheSameStatement() {
+		assertAtMostTwoStatements(() -> doctorRepository.findAllActive());
+		assertAtMostTwoStatements(() -> doctorRepository.findBySpecialtyIgnoreCase("cardiologist"));
+		assertAtMostTwoStatements(() -> doctorRepository.findByNameLike("Doctor"));
+		assertAtMostTwoStatements(() ->
+				doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase("doctor", "CARDIOLOGIST"));
+	}
+
+	@Test
+	void slotsOfDoctorsLoadedWithoutTheGraphAreBatchFetched() {
+		assertAtMostTwoStatements(() -> doctorRepository.findAll());
+	}
+
+	private void assertAtMostTwoStatements(Supplier<List<Doctor>> listing) {
+		entityManager.clear();
+		entityManagerFactory.getCache().evictAll();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Doctor> doctors = listing.get();
+		int slots = 0;
+		for (Doctor doctor : doctors) {
+			slots += doctor.getAvailableTimes().size();
+		}
+
+		assertEquals(DOCTORS, doctors.size());
+		assertEquals(DOCTORS * 2, slots);
+		long statements = statistics.getPrepareStatementCount();
+		assertTrue(statements <= 2, "expected at most 2 statements, got " + statements);
+	}
+}
@@ -0,0 +1,89 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Buckets run on System.nanoTime(), so refill is checked with a fast rate and a short
+ * sleep; rejection uses a rate slow enough that nothing refills during the test.
+ */
+class LoginRateLimiterTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void rejectsOnceIdentifierBucketIsEmpty() {
+		LoginRateLimiter limiter = new LoginRateLimiter(2, 1, 100, 100, registry);
+
+		assertNull(limiter.check("Doctor@Example.com", request("10.0.0.1")));
+		assertNull(limiter.check("doctor@example.com ", request("10.0.0.2")));
+
+		ResponseEntity<Map<String, String>> rejected = limiter.check("doctor@example.com", request("10.0.0.3"));
+		assertNotNull(rejected);
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+		int retryAfter = Integer.parseInt(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals(60, retryAfter, 1); // one token per minute
+
+		// Other identifiers have their own bucket
+		assertNull(limiter.check("other@example.com", request("10.0.0.1")));
+		assertEquals(1.0, registry.get("login.ratelimit.rejected").tag("key", "identifier").counter().count());
+		assertEquals(3.0, registry.get("login.ratelimit.allowed").counter().count());
+	}
+
+	@Test
+	void rejectsOnceAddressBucketIsEmpty() {
+		LoginRateLimiter limiter = new LoginRateLimiter(100, 100, 2, 1, registry);
+
+		assertNull(limiter.check("a@example.com", request("10.0.0.1")));
+		assertNull(limiter.check("b@example.com", request("10.0.0.1")));
+		assertNotNull(limiter.check("c@example.com", request("10.0.0.1")));
+		assertNull(limiter.check("c@example.com", request("10.0.0.2")));
+
+		assertEquals(1.0, registry.get("login.ratelimit.rejected").tag("key", "address").counter().count());
+	}
+
+	@Test
+	void bucketRefillsOverTime() throws InterruptedException {
+		// One token every 100 ms
+		LoginRateLimiter limiter = new LoginRateLimiter(1, 600, 100, 6000, registry);
+
+		assertNull(limiter.check("doctor@example.com", request("10.0.0.1")));
+		assertNotNull(limiter.check("doctor@example.com", request("10.0.0.1")));
+
+		Thread.sleep(150);
+		assertNull(limiter.check("doctor@example.com", request("10.0.0.1")));
+		assertNotNull(limiter.check("doctor@example.com", request("10.0.0.1")));
+	}
+
+	@Test
+	void evictsOnlyRefilledBuckets() throws InterruptedException {
+		LoginRateLimiter limiter = new LoginRateLimiter(1, 600, 1, 600, registry);
+		assertNull(limiter.check("doctor@example.com", request("10.0.0.1")));
+		assertEquals(2.0, registry.get("login.ratelimit.buckets").gauge().value());
+
+		limiter.evictIdle();
+		assertEquals(2.0, registry.get("login.ratelimit.buckets").gauge().value());
+
+		Thread.sleep(150);
+		limiter.evictIdle();
+		assertEquals(0.0, registry.get("login.ratelimit.buckets").gauge().value());
+	}
+
+	// ---------------------------------------------------------------------
+
+	private static MockHttpServletRequest request(String address) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+		request.setRemoteAddr(address);
+		return request;
+	}
+}
@@ -0,0 +1,160 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentStatusRef;
+import com.project.back_end.models.OutboxRecord;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * MongoDB, the appointment repository and the statistics are mocked; the transaction
+ * manager is a mock too, so the relay's TransactionTemplate simply runs its callback.
+ */
+class PrescriptionOutboxRelayTests {
+
+	private static final int BATCH_SIZE = 2;
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final AppointmentStatistics statistics = mock(AppointmentStatistics.class);
+	private PrescriptionOutboxRelay relay;
+
+	@BeforeEach
+	void setUp() {
+		relay = new PrescriptionOutboxRelay(mongoTemplate, appointmentRepository, statistics,
+				mock(PlatformTransactionManager.class), BATCH_SIZE, MAX_ATTEMPTS, 300, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void appliesDueRecordsBatchByBatch() {
+		when(mongoTemplate.find(any(Query.class), eq(Prescription.class)))
+				.thenReturn(List.of(prescription("p1", 1L, 0), prescription("p2", 2L, 0)))
+				.thenReturn(List.of(prescription("p3", 3L, 0)));
+		LocalDateTime time = LocalDateTime.of(2025, 3, 3, 9, 0);
+		when(appointmentRepository.lockUnprescribed(anyCollection()))
+				.thenReturn(List.of(row(10L, time, 0), row(10L, time, 0)))
+				.thenReturn(List.of(row(11L, time, 0)));
+
+		relay.relay();
+
+		// A full batch means more may be due: the second, partial batch ends the run
+		verify(appointmentRepository).markPrescribed(Set.of(1L, 2L));
+		verify(appointmentRepository).markPrescribed(Set.of(3L));
+		verify(statistics, times(3)).moved(anyLong(), eq(time), eq(0), anyLong(), eq(time),
+				eq(AppointmentStatistics.COMPLETED));
+		verify(mongoTemplate, times(2)).updateMulti(any(Query.class), any(Update.class), eq(Prescription.class));
+		verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Prescription.class));
+	}
+
+	@Test
+	void failedBatchBacksOffUntilFailed() {
+		when(mongoTemplate.find(any(Query.class), eq(Prescription.class)))
+				.thenReturn(List.of(prescription("first", 1L, 0), prescription("last", 2L, MAX_ATTEMPTS - 1)))
+				.thenReturn(List.of());
+		when(appointmentRepository.markPrescribed(anyCollection())).thenThrow(new IllegalStateException("db down"));
+
+		Instant before = Instant.now();
+		relay.relay();
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate, times(2)).updateFirst(queries.capture(), updates.capture(), eq(Prescription.class));
+		verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Prescription.class));
+
+		// First failure: retried after 1s, still PENDING
+		Document retry = set(updates.getAllValues().get(0));
+		assertEquals("first", queries.getAllValues().get(0).getQueryObject().get("_id"));
+		assertEquals(1, retry.get("outbox.attempts"));
+		assertEquals("db down", retry.get("outbox.lastError"));
+		assertFalse(retry.containsKey("outbox.status"));
+		Instant next = (Instant) retry.get("outbox.nextAttemptAt");
+		assertFalse(next.isBefore(before.plus(Duration.ofSeconds(1))));
+		assertTrue(next.isBefore(before.plus(Duration.ofSeconds(2))));
+
+		// Attempt limit reached: FAILED, no further retry scheduled
+		Document failed = set(updates.getAllValues().get(1));
+		assertEquals(MAX_ATTEMPTS, failed.get("outbox.attempts"));
+		assertEquals(OutboxRecord.FAILED, failed.get("outbox.status"));
+		assertNull(failed.get("outbox.nextAttemptAt"));
+	}
+
+	@Test
+	void reapplyingAnAppliedBatchChangesNothing() {
+		// e.g. a crash after the MySQL update but before the records were marked DONE
+		when(mongoTemplate.find(any(Query.class), eq(Prescription.class)))
+				.thenReturn(List.of(prescription("p1", 1L, 0)));
+		when(appointmentRepository.lockUnprescribed(anyCollection())).thenReturn(List.of());
+		when(appointmentRepository.markPrescribed(anyCollection())).thenReturn(0);
+
+		relay.relay();
+
+		verify(statistics, never()).moved(any(), any(), anyInt(), any(), any(), anyInt());
+		verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Prescription.class));
+		verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Prescription.class));
+	}
+
+	// ---------------------------------------------------------------------
+
+	private static Prescription prescription(String id, Long appointmentId, int attempts) {
+		Prescription prescription = new Prescription();
+		prescription.setId(id);
+		prescription.setAppointmentId(appointmentId);
+		OutboxRecord outbox = OutboxRecord.pending();
+		outbox.setAttempts(attempts);
+		prescription.setOutbox(outbox);
+		return prescription;
+	}
+
+	private static AppointmentStatusRef row(Long doctorId, LocalDateTime time, int status) {
+		return new AppointmentStatusRef() {
+			@Override
+			public Long getDoctorId() {
+				return doctorId;
+			}
+
+			@Override
+			public LocalDateTime getAppointmentTime() {
+				return time;
+			}
+
+			@Override
+			public Integer getStatus() {
+				return status;
+			}
+		};
+	}
+
+	private static Document set(Update update) {
+		return (Document) update.getUpdateObject().get("$set");
+	}
+}
@@ -0,0 +1,126 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.RevokedToken;
+import com.project.back_end.repo.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The revocation repository is mocked; the transaction manager is a mock too, so the
+ * REQUIRES_NEW template used for persisting simply runs its callback.
+ */
+class TokenRevocationListTests {
+
+	private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+	private TokenRevocationList revocations;
+
+	@BeforeEach
+	void setUp() {
+		revocations = new TokenRevocationList(repository, mock(PlatformTransactionManager.class), 1000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void loggedOutTokenIsRejected() {
+		Date issued = ago(Duration.ofMinutes(5));
+		revocations.revokeToken("jti-1", Date.from(Instant.now().plus(Duration.ofHours(1))));
+
+		assertTrue(revocations.isRevoked("patient", 7L, issued, "jti-1"));
+		// Another token of the same user is still valid
+		assertFalse(revocations.isRevoked("patient", 7L, issued, "jti-2"));
+
+		ArgumentCaptor<RevokedToken> row = ArgumentCaptor.forClass(RevokedToken.class);
+		verify(repository).save(row.capture());
+		assertEquals("jti:jti-1", row.getValue().getRevocationKey());
+	}
+
+	@Test
+	void deletedUsersOlderTokensAreRejected() {
+		revocations.revokeUser("doctor", 5L);
+
+		assertTrue(revocations.isRevoked("doctor", 5L, ago(Duration.ofMinutes(1)), "jti-old"));
+		assertTrue(revocations.isRevoked("doctor", 5L, null, null)); // legacy token without iat
+		// Tokens issued after the revocation, other users and the same ID in another role pass
+		assertFalse(revocations.isRevoked("doctor", 5L, Date.from(Instant.now().plusSeconds(60)), "jti-new"));
+		assertFalse(revocations.isRevoked("doctor", 6L, ago(Duration.ofMinutes(1)), "jti-other"));
+		assertFalse(revocations.isRevoked("patient", 5L, ago(Duration.ofMinutes(1)), "jti-patient"));
+	}
+
+	@Test
+	void rebuildRestoresRevocationsFromRows() {
+		LocalDateTime now = LocalDateTime.now();
+		when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+				new RevokedToken("jti:abc", now.minusHours(1), now.plusHours(1)),
+				new RevokedToken("user:patient:9", now.minusMinutes(10), now.plusHours(1))));
+
+		// A fresh instance, as after a restart
+		TokenRevocationList restarted = new TokenRevocationList(repository, mock(PlatformTransactionManager.class), 1000);
+		assertFalse(restarted.isRevoked("patient", 1L, ago(Duration.ofHours(2)), "abc"));
+		restarted.rebuild();
+
+		assertTrue(restarted.isRevoked("patient", 1L, ago(Duration.ofHours(2)), "abc"));
+		assertTrue(restarted.isRevoked("patient", 9L, ago(Duration.ofMinutes(20)), "jti-x"));
+		assertFalse(restarted.isRevoked("patient", 9L, ago(Duration.ofMinutes(5)), "jti-y"));
+	}
+
+	@Test
+	void revocationInsideTransactionIsPersistedAfterCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		revocations.revokeUser("patient", 3L);
+
+		// Effective at once, written only once the surrounding transaction commits
+		assertTrue(revocations.isRevoked("patient", 3L, ago(Duration.ofMinutes(1)), null));
+		verify(repository, never()).save(any());
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		assertEquals(1, synchronizations.size());
+
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+		ArgumentCaptor<RevokedToken> row = ArgumentCaptor.forClass(RevokedToken.class);
+		verify(repository).save(row.capture());
+		assertEquals("user:patient:3", row.getValue().getRevocationKey());
+	}
+
+	@Test
+	void pruneKeepsRecentRevocationsNotYetInTheTable() {
+		when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+		revocations.revokeToken("jti-1", Date.from(Instant.now().plus(Duration.ofHours(1))));
+
+		revocations.prune();
+
+		verify(repository).deleteExpired(any());
+		assertTrue(revocations.isRevoked("patient", 7L, ago(Duration.ofMinutes(5)), "jti-1"));
+	}
+
+	// ---------------------------------------------------------------------
+
+	private static Date ago(Duration duration) {
+		return Date.from(Instant.now().minus(duration));
+	}
+}
@@ -0,0 +1,126 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.AvailabilityTemplate;
+import com.project.back_end.models.TimeOff;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.AvailabilityTemplateRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.TimeOffRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Repositories are mocked with plain rows, so these tests check the streaming
+ * counts and the fork/join aggregation (February 2025: 28 days, Mondays 3/10/17/24).
+ */
+class UtilizationServiceTests {
+
+	private static final YearMonth FEBRUARY = YearMonth.of(2025, 2);
+	private static final int DOCTORS = 2000;
+
+	private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final ArchivedAppointmentRepository archivedAppointmentRepository = mock(ArchivedAppointmentRepository.class);
+	private final AvailabilityTemplateRepository templateRepository = mock(AvailabilityTemplateRepository.class);
+	private final TimeOffRepository timeOffRepository = mock(TimeOffRepository.class);
+	private ForkJoinPool pool;
+	private UtilizationService service;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ForkJoinPool(4);
+		service = new UtilizationService(doctorRepository, appointmentRepository, archivedAppointmentRepository,
+				templateRepository, timeOffRepository, pool, new SimpleMeterRegistry());
+
+		// Doctors 1..2000, alternating specialties, each offering 09:00-10:00 and 10:00-11:00 daily
+		List<Object[]> doctors = new ArrayList<>();
+		List<Object[]> slots = new ArrayList<>();
+		List<Object[]> bookings = new ArrayList<>();
+		for (long id = 1; id <= DOCTORS; id++) {
+			doctors.add(new Object[] {id, "Doctor " + id, id % 2 == 0 ? "Cardiology" : "Dermatology"});
+			slots.add(new Object[] {id, "09:00-10:00"});
+			slots.add(new Object[] {id, "10:00-11:00"});
+			bookings.add(new Object[] {id, LocalDateTime.of(2025, 2, 3, 9, 0)});
+		}
+		when(doctorRepository.findActiveSummaries()).thenReturn(doctors);
+		when(doctorRepository.findActiveAvailableTimes()).thenReturn(slots);
+		when(appointmentRepository.streamBookedTimes(any(), any())).thenAnswer(invocation -> bookings.stream());
+		when(archivedAppointmentRepository.streamBookedTimes(any(), any())).thenAnswer(invocation -> Stream.empty());
+		when(templateRepository.findApplicableBetween(any(), any())).thenReturn(List.of());
+		when(timeOffRepository.findByDateBetween(any(), any())).thenReturn(List.of());
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void aggregatesBookedAndOfferedSlotsPerSpecialty() {
+		Map<String, Object> body = service.getHeatmap(FEBRUARY, null, null).getBody();
+
+		List<Map<String, Object>> specialties = (List<Map<String, Object>>) body.get("specialties");
+		assertEquals(2, specialties.size());
+		Map<String, Object> cardiology = specialties.get(0);
+		assertEquals("Cardiology", cardiology.get("specialty"));
+		assertEquals(1000, cardiology.get("doctors"));
+		assertEquals(1000L * 2 * 28, cardiology.get("offered"));
+		assertEquals(1000L, cardiology.get("booked"));
+
+		List<List<Double>> heatmap = (List<List<Double>>) cardiology.get("heatmap");
+		assertEquals(28, heatmap.size());
+		assertEquals(1.0, heatmap.get(2).get(9));
+		assertEquals(0.0, heatmap.get(2).get(10));
+		assertNull(heatmap.get(2).get(8));
+		assertEquals(DOCTORS, ((List<?>) body.get("doctors")).size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void templatesReplaceAvailableTimesAndTimeOffIsSkipped() {
+		AvailabilityTemplate mondays = new AvailabilityTemplate();
+		mondays.setDoctorId(2L);
+		mondays.setDayOfWeek(DayOfWeek.MONDAY);
+		mondays.setStartTime(LocalTime.of(9, 0));
+		mondays.setEndTime(LocalTime.of(12, 0));
+		TimeOff holiday = new TimeOff();
+		holiday.setDoctorId(2L);
+		holiday.setDate(LocalDate.of(2025, 2, 10));
+		when(templateRepository.findApplicableBetween(any(), any())).thenReturn(List.of(mondays));
+		when(timeOffRepository.findByDateBetween(any(), any())).thenReturn(List.of(holiday));
+
+		Map<String, Object> body = service.getHeatmap(FEBRUARY, null, 2L).getBody();
+
+		Map<String, Object> doctor = ((List<Map<String, Object>>) body.get("doctors")).get(0);
+		assertEquals(2L, doctor.get("doctorId"));
+		assertEquals(3L * 3, doctor.get("offered")); // three Mondays, three hourly slots each
+		assertEquals(1L, doctor.get("booked"));
+
+		List<List<Double>> heatmap = (List<List<Double>>) doctor.get("heatmap");
+		assertEquals(1.0, heatmap.get(2).get(9));  // Monday 3rd, booked
+		assertNull(heatmap.get(9).get(9));         // Monday 10th, holiday
+		assertEquals(0.0, heatmap.get(16).get(11));
+		assertNull(heatmap.get(3).get(9));         // Tuesday, no template
+	}
+}
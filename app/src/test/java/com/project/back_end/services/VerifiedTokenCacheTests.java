@@ -0,0 +1,83 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VerifiedTokenCacheTests {
+
+	private static final Date IN_AN_HOUR = Date.from(Instant.now().plusSeconds(3600));
+
+	private final AuthPrincipal doctor = new AuthPrincipal(5L, "doctor@example.com", "doctor");
+	private final AuthPrincipal patient = new AuthPrincipal(5L, "patient@example.com", "patient");
+
+	@Test
+	void returnsPrincipalForSameTokenAndRoleOnly() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, 300);
+		cache.put("token-a", doctor, IN_AN_HOUR);
+
+		assertSame(doctor, cache.get("token-a", "doctor"));
+		assertNull(cache.get("token-a", "patient"));
+		assertNull(cache.get("token-b", "doctor"));
+	}
+
+	@Test
+	void evictDropsEveryTokenOfThatUserOnly() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, 300);
+		cache.put("token-a", doctor, IN_AN_HOUR);
+		cache.put("token-b", doctor, IN_AN_HOUR);
+		cache.put("token-c", patient, IN_AN_HOUR);
+
+		cache.evict("doctor", 5L);
+
+		assertNull(cache.get("token-a", "doctor"));
+		assertNull(cache.get("token-b", "doctor"));
+		assertSame(patient, cache.get("token-c", "patient"));
+		assertEquals(1, cache.size());
+
+		// Tokens cached again after the eviction are indexed afresh
+		cache.put("token-a", doctor, IN_AN_HOUR);
+		cache.evict("doctor", 5L);
+		assertNull(cache.get("token-a", "doctor"));
+	}
+
+	@Test
+	void evictTokenDropsOneToken() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, 300);
+		cache.put("token-a", doctor, IN_AN_HOUR);
+		cache.put("token-b", doctor, IN_AN_HOUR);
+
+		cache.evictToken("token-a", "doctor");
+
+		assertNull(cache.get("token-a", "doctor"));
+		assertSame(doctor, cache.get("token-b", "doctor"));
+	}
+
+	@Test
+	void entriesNeverOutliveTheToken() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, 300);
+		cache.put("expired", doctor, Date.from(Instant.now().minusSeconds(1)));
+
+		assertNull(cache.get("expired", "doctor"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void oldestEntriesAreDroppedOnceFull() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(3, 300);
+		for (int i = 0; i < 5; i++) {
+			cache.put("token-" + i, new AuthPrincipal((long) i, "user" + i + "@example.com", "patient"), IN_AN_HOUR);
+		}
+
+		assertEquals(3, cache.size());
+		assertNull(cache.get("token-0", "patient"));
+		assertNull(cache.get("token-1", "patient"));
+		assertEquals(4L, cache.get("token-4", "patient").getId());
+	}
+}